@@ -0,0 +1,30 @@
+package com.example.lawway;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+public class BatchQueryHelper {
+    public static final int MAX_WHERE_IN = 30;
+
+    public static List<String> distinctIds(Collection<String> ids) {
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String id : ids) {
+            if (id != null && !id.isEmpty()) {
+                distinct.add(id);
+            }
+        }
+        return new ArrayList<>(distinct);
+    }
+
+    public static <T> List<List<T>> chunk(List<T> items, int chunkSize) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int start = 0; start < items.size(); start += chunkSize) {
+            int end = Math.min(start + chunkSize, items.size());
+            chunks.add(new ArrayList<>(items.subList(start, end)));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.lawway;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class BulkRequestWriter {
+    public static final int MAX_BATCH_WRITES = 500;
+    public static final int MAX_PARALLEL_BATCHES = 4;
+
+    interface WriteAppender {
+        void append(WriteBatch batch, String requestId);
+    }
+
+    public static class Result {
+        private final Set<String> succeeded = new LinkedHashSet<>();
+        private final Map<String, Exception> failed = new LinkedHashMap<>();
+        private int batchCount;
+
+        public synchronized List<String> getSucceeded() {
+            return Collections.unmodifiableList(new ArrayList<>(succeeded));
+        }
+
+        public synchronized Map<String, Exception> getFailed() {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(failed));
+        }
+
+        public synchronized boolean isSuccessful(String requestId) {
+            return succeeded.contains(requestId);
+        }
+
+        public synchronized boolean hasFailures() {
+            return !failed.isEmpty();
+        }
+
+        public synchronized int getBatchCount() {
+            return batchCount;
+        }
+
+        synchronized void countBatch() {
+            batchCount++;
+        }
+
+        synchronized void record(List<String> requestIds, Exception error) {
+            if (error == null) {
+                succeeded.addAll(requestIds);
+            } else {
+                for (String requestId : requestIds) {
+                    failed.put(requestId, error);
+                }
+            }
+        }
+
+        @Override
+        public synchronized String toString() {
+            return "BulkRequestWriter.Result{succeeded=" + succeeded.size()
+                    + ", failed=" + failed.size()
+                    + ", batches=" + batchCount + "}";
+        }
+    }
+
+    static Task<Result> accept(FirebaseFirestore db, List<Request> requests) {
+        Map<String, String> clientIds = new LinkedHashMap<>();
+        for (Request request : requests) {
+            if (request != null && request.getRequestId() != null) {
+                clientIds.put(request.getRequestId(), request.getClientId());
+            }
+        }
+        return run(db, new ArrayList<>(clientIds.keySet()), 2,
+                (batch, requestId) -> RequestHelper.addAcceptWrites(batch, requestId, clientIds.get(requestId)));
+    }
+
+    static Task<Result> reject(FirebaseFirestore db, List<String> requestIds, String rejectedReason) {
+        return run(db, BatchQueryHelper.distinctIds(requestIds), 1,
+                (batch, requestId) -> RequestHelper.addRejectWrites(batch, requestId, rejectedReason));
+    }
+
+    private static Task<Result> run(FirebaseFirestore db, List<String> requestIds, int writesPerItem, WriteAppender appender) {
+        Result result = new Result();
+        if (requestIds.isEmpty()) {
+            return Tasks.forResult(result);
+        }
+
+        List<List<String>> chunks = BatchQueryHelper.chunk(requestIds, MAX_BATCH_WRITES / writesPerItem);
+        int laneCount = Math.min(MAX_PARALLEL_BATCHES, chunks.size());
+        List<Task<Void>> lanes = new ArrayList<>();
+        for (int lane = 0; lane < laneCount; lane++) {
+            Task<Void> tail = Tasks.forResult(null);
+            for (int index = lane; index < chunks.size(); index += laneCount) {
+                List<String> chunk = chunks.get(index);
+                tail = tail.continueWithTask(previous -> commit(db, chunk, appender, result));
+            }
+            lanes.add(tail);
+        }
+
+        return Tasks.whenAllComplete(lanes).continueWith(task -> result);
+    }
+
+    private static Task<Void> commit(FirebaseFirestore db, List<String> chunk, WriteAppender appender, Result result) {
+        WriteBatch batch = db.batch();
+        for (String requestId : chunk) {
+            appender.append(batch, requestId);
+        }
+        result.countBatch();
+        return batch.commit().continueWithTask(task -> {
+            Exception error = task.isSuccessful() ? null : task.getException();
+            if (error != null && chunk.size() > 1 && isMissingDocument(error)) {
+                // One deleted request fails the whole batch, so halve it until the missing ids are isolated.
+                int middle = chunk.size() / 2;
+                List<String> head = new ArrayList<>(chunk.subList(0, middle));
+                List<String> tail = new ArrayList<>(chunk.subList(middle, chunk.size()));
+                return commit(db, head, appender, result)
+                        .continueWithTask(previous -> commit(db, tail, appender, result));
+            }
+            result.record(chunk, error);
+            return Tasks.forResult(null);
+        });
+    }
+
+    private static boolean isMissingDocument(Exception error) {
+        return error instanceof FirebaseFirestoreException
+                && ((FirebaseFirestoreException) error).getCode() == FirebaseFirestoreException.Code.NOT_FOUND;
+    }
+}
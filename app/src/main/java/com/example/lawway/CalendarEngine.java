@@ -0,0 +1,278 @@
+package com.example.lawway;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/** Month grids and per-day appointment lookups for the lawyer calendar. */
+public class CalendarEngine {
+    public static final int TYPE_MEETING = 1;
+    public static final int TYPE_COURT = 1 << 1;
+    public static final int TYPE_PERSONAL = 1 << 2;
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+    private static final int GRID_CACHE_SIZE = 12;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final LruCache<Integer, MonthGrid> gridCache = new LruCache<>(GRID_CACHE_SIZE);
+
+    private volatile Index index = new Index(Collections.<Appointment>emptyList());
+
+    public interface GridCallback {
+        void onGrid(MonthGrid grid);
+    }
+
+    public interface AppointmentsCallback {
+        void onAppointments(List<Appointment> appointments);
+    }
+
+    public static class Appointment {
+        private final String id;
+        private final long startMillis;
+        private final long endMillis;
+        private final int type;
+        private final String title;
+        private final String details;
+        private final String participant;
+        private final boolean priority;
+
+        public Appointment(String id, long startMillis, long endMillis, int type,
+                           String title, String details, String participant, boolean priority) {
+            this.id = id;
+            this.startMillis = startMillis;
+            this.endMillis = Math.max(startMillis, endMillis);
+            this.type = type;
+            this.title = title;
+            this.details = details;
+            this.participant = participant;
+            this.priority = priority;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public long getStartMillis() {
+            return startMillis;
+        }
+
+        public long getEndMillis() {
+            return endMillis;
+        }
+
+        public int getType() {
+            return type;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String getDetails() {
+            return details;
+        }
+
+        public String getParticipant() {
+            return participant;
+        }
+
+        public boolean hasPriority() {
+            return priority;
+        }
+    }
+
+    /** A 6 x 7 month grid starting on the Sunday on or before the 1st. */
+    public static class MonthGrid {
+        public static final int CELLS = 42;
+
+        public final int year;
+        public final int month;
+        public final long firstCellEpochDay;
+        public final int firstDayIndex;
+        public final int daysInMonth;
+        public final int rows;
+        public final int[] dayOfMonth = new int[CELLS];
+        public final int[] eventMask = new int[CELLS];
+
+        MonthGrid(int year, int month, long firstCellEpochDay, int firstDayIndex, int daysInMonth) {
+            this.year = year;
+            this.month = month;
+            this.firstCellEpochDay = firstCellEpochDay;
+            this.firstDayIndex = firstDayIndex;
+            this.daysInMonth = daysInMonth;
+            this.rows = (firstDayIndex + daysInMonth + 6) / 7;
+        }
+
+        public boolean isInMonth(int cell) {
+            return cell >= firstDayIndex && cell < firstDayIndex + daysInMonth;
+        }
+
+        public long epochDayAt(int cell) {
+            return firstCellEpochDay + cell;
+        }
+    }
+
+    public void setAppointments(List<Appointment> appointments) {
+        List<Appointment> copy = new ArrayList<>(appointments);
+        executor.execute(() -> {
+            index = new Index(copy);
+            gridCache.evictAll();
+        });
+    }
+
+    /** Delivers the grid for {@code month} (0-based) on the main thread and prebuilds its neighbours. */
+    public void loadMonth(int year, int month, GridCallback callback) {
+        MonthGrid cached = gridCache.get(monthKey(year, month));
+        if (cached != null) {
+            callback.onGrid(cached);
+        }
+        executor.execute(() -> {
+            MonthGrid grid = gridFor(year, month);
+            if (cached != grid) {
+                mainHandler.post(() -> callback.onGrid(grid));
+            }
+            gridFor(month == 0 ? year - 1 : year, month == 0 ? 11 : month - 1);
+            gridFor(month == 11 ? year + 1 : year, month == 11 ? 0 : month + 1);
+        });
+    }
+
+    public void getAppointmentsOn(long epochDay, AppointmentsCallback callback) {
+        executor.execute(() -> {
+            List<Appointment> result = index.on(epochDay);
+            mainHandler.post(() -> callback.onAppointments(result));
+        });
+    }
+
+    private MonthGrid gridFor(int year, int month) {
+        int key = monthKey(year, month);
+        MonthGrid grid = gridCache.get(key);
+        if (grid != null) {
+            return grid;
+        }
+        long firstOfMonth = epochDay(year, month + 1, 1);
+        int firstDayIndex = dayOfWeek(firstOfMonth);
+        long firstCell = firstOfMonth - firstDayIndex;
+        grid = new MonthGrid(year, month, firstCell, firstDayIndex, daysInMonth(year, month + 1));
+
+        int prevYear = month == 0 ? year - 1 : year;
+        int prevMonthDays = daysInMonth(prevYear, month == 0 ? 12 : month);
+        for (int cell = 0; cell < MonthGrid.CELLS; cell++) {
+            int offset = cell - firstDayIndex;
+            if (offset < 0) {
+                grid.dayOfMonth[cell] = prevMonthDays + offset + 1;
+            } else if (offset < grid.daysInMonth) {
+                grid.dayOfMonth[cell] = offset + 1;
+            } else {
+                grid.dayOfMonth[cell] = offset - grid.daysInMonth + 1;
+            }
+        }
+        index.fillMasks(firstCell, grid.eventMask);
+        gridCache.put(key, grid);
+        return grid;
+    }
+
+    private static int monthKey(int year, int month) {
+        return year * 12 + month;
+    }
+
+    public static long epochDayOf(long millis) {
+        return Math.floorDiv(millis + TimeZone.getDefault().getOffset(millis), MILLIS_PER_DAY);
+    }
+
+    /** Days since 1970-01-01 for a proleptic Gregorian date, month 1-12. */
+    public static long epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    /** 0 = Sunday ... 6 = Saturday. */
+    public static int dayOfWeek(long epochDay) {
+        return (int) Math.floorMod(epochDay + 4, 7L);
+    }
+
+    public static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static class Index {
+        final Appointment[] appointments;
+        final long[] startDays;
+        final long[] endDays;
+        final long maxSpanDays;
+
+        Index(List<Appointment> source) {
+            appointments = source.toArray(new Appointment[0]);
+            Arrays.sort(appointments, (a, b) -> Long.compare(a.startMillis, b.startMillis));
+            startDays = new long[appointments.length];
+            endDays = new long[appointments.length];
+            long maxSpan = 0;
+            for (int i = 0; i < appointments.length; i++) {
+                startDays[i] = epochDayOf(appointments[i].startMillis);
+                // An appointment ending exactly at midnight does not occupy the next day.
+                endDays[i] = Math.max(startDays[i], epochDayOf(appointments[i].endMillis - 1));
+                maxSpan = Math.max(maxSpan, endDays[i] - startDays[i]);
+            }
+            maxSpanDays = maxSpan;
+        }
+
+        int firstCandidate(long fromDay) {
+            long key = fromDay - maxSpanDays;
+            int low = 0;
+            int high = startDays.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (startDays[mid] < key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        void fillMasks(long firstDay, int[] masks) {
+            long lastDay = firstDay + masks.length - 1;
+            for (int i = firstCandidate(firstDay); i < startDays.length && startDays[i] <= lastDay; i++) {
+                long from = Math.max(startDays[i], firstDay);
+                long to = Math.min(endDays[i], lastDay);
+                for (long day = from; day <= to; day++) {
+                    masks[(int) (day - firstDay)] |= appointments[i].type;
+                }
+            }
+        }
+
+        List<Appointment> on(long day) {
+            List<Appointment> result = new ArrayList<>();
+            for (int i = firstCandidate(day); i < startDays.length && startDays[i] <= day; i++) {
+                if (endDays[i] >= day) {
+                    result.add(appointments[i]);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.lawway;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.util.AttributeSet;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.core.content.ContextCompat;
+
+/** Draws a {@link CalendarEngine.MonthGrid} in a single view. */
+public class CalendarMonthView extends View {
+    private static final String[] DAY_NAMES = {"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"};
+    private static final char[][] DAY_NUMBERS = new char[32][];
+    private static final int[] EVENT_TYPES = {CalendarEngine.TYPE_COURT, CalendarEngine.TYPE_MEETING, CalendarEngine.TYPE_PERSONAL};
+    private static final int SWIPE_MIN_DISTANCE_DP = 48;
+
+    static {
+        for (int day = 1; day < DAY_NUMBERS.length; day++) {
+            DAY_NUMBERS[day] = String.valueOf(day).toCharArray();
+        }
+    }
+
+    public interface OnDaySelectedListener {
+        void onDaySelected(long epochDay);
+    }
+
+    public interface OnMonthSwipeListener {
+        void onMonthSwipe(int delta);
+    }
+
+    private final float density;
+    private final float headerHeight;
+    private final float cellHeight;
+    private final float circleRadius;
+    private final float dotRadius;
+    private final float dotSpacing;
+
+    private final Paint headerPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint dayPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint selectedPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint todayPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint dotPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final int[] eventColors = new int[EVENT_TYPES.length];
+    private final int textColor;
+    private final int inactiveColor;
+    private final int selectedTextColor;
+    private final GestureDetector gestureDetector;
+
+    private CalendarEngine.MonthGrid grid;
+    private long todayEpochDay = Long.MIN_VALUE;
+    private long selectedEpochDay = Long.MIN_VALUE;
+    private OnDaySelectedListener onDaySelectedListener;
+    private OnMonthSwipeListener onMonthSwipeListener;
+
+    public CalendarMonthView(Context context) {
+        this(context, null);
+    }
+
+    public CalendarMonthView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        density = getResources().getDisplayMetrics().density;
+        headerHeight = 36 * density;
+        cellHeight = 56 * density;
+        circleRadius = 18 * density;
+        dotRadius = 3 * density;
+        dotSpacing = 8 * density;
+
+        textColor = ContextCompat.getColor(context, R.color.calendar_date_text);
+        inactiveColor = ContextCompat.getColor(context, R.color.calendar_date_inactive);
+        selectedTextColor = ContextCompat.getColor(context, R.color.calendar_date_selected_text);
+        eventColors[0] = ContextCompat.getColor(context, R.color.event_court);
+        eventColors[1] = ContextCompat.getColor(context, R.color.event_meeting);
+        eventColors[2] = ContextCompat.getColor(context, R.color.event_personal);
+
+        float scaledDensity = getResources().getDisplayMetrics().scaledDensity;
+        headerPaint.setColor(ContextCompat.getColor(context, R.color.dashboard_text_secondary));
+        headerPaint.setTextSize(12 * scaledDensity);
+        headerPaint.setTypeface(Typeface.DEFAULT_BOLD);
+        headerPaint.setTextAlign(Paint.Align.CENTER);
+        dayPaint.setTextSize(14 * scaledDensity);
+        dayPaint.setTextAlign(Paint.Align.CENTER);
+        selectedPaint.setColor(ContextCompat.getColor(context, R.color.dashboard_primary));
+        todayPaint.setColor(ContextCompat.getColor(context, R.color.dashboard_primary));
+        todayPaint.setStyle(Paint.Style.STROKE);
+        todayPaint.setStrokeWidth(1.5f * density);
+
+        gestureDetector = new GestureDetector(context, new GestureDetector.SimpleOnGestureListener() {
+            @Override
+            public boolean onDown(@NonNull MotionEvent e) {
+                return true;
+            }
+
+            @Override
+            public boolean onSingleTapUp(@NonNull MotionEvent e) {
+                return selectCellAt(e.getX(), e.getY());
+            }
+
+            @Override
+            public boolean onFling(MotionEvent e1, @NonNull MotionEvent e2, float velocityX, float velocityY) {
+                if (e1 == null || onMonthSwipeListener == null) {
+                    return false;
+                }
+                float dx = e2.getX() - e1.getX();
+                if (Math.abs(dx) < SWIPE_MIN_DISTANCE_DP * density || Math.abs(dx) < Math.abs(e2.getY() - e1.getY())) {
+                    return false;
+                }
+                onMonthSwipeListener.onMonthSwipe(dx < 0 ? 1 : -1);
+                return true;
+            }
+        });
+    }
+
+    public void setGrid(CalendarEngine.MonthGrid grid) {
+        boolean resize = this.grid == null || this.grid.rows != grid.rows;
+        this.grid = grid;
+        if (resize) {
+            requestLayout();
+        }
+        invalidate();
+    }
+
+    public void setToday(long epochDay) {
+        todayEpochDay = epochDay;
+        invalidate();
+    }
+
+    public void setSelectedDay(long epochDay) {
+        selectedEpochDay = epochDay;
+        invalidate();
+    }
+
+    public void setOnDaySelectedListener(OnDaySelectedListener listener) {
+        onDaySelectedListener = listener;
+    }
+
+    public void setOnMonthSwipeListener(OnMonthSwipeListener listener) {
+        onMonthSwipeListener = listener;
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int width = MeasureSpec.getSize(widthMeasureSpec);
+        int rows = grid != null ? grid.rows : 6;
+        int height = (int) (getPaddingTop() + headerHeight + rows * cellHeight + getPaddingBottom());
+        setMeasuredDimension(width, resolveSize(Math.max(height, getSuggestedMinimumHeight()), heightMeasureSpec));
+    }
+
+    @Override
+    protected void onDraw(@NonNull Canvas canvas) {
+        super.onDraw(canvas);
+        float left = getPaddingLeft();
+        float top = getPaddingTop();
+        float cellWidth = (getWidth() - getPaddingLeft() - getPaddingRight()) / 7f;
+
+        float headerBaseline = top + headerHeight / 2 - (headerPaint.descent() + headerPaint.ascent()) / 2;
+        for (int column = 0; column < 7; column++) {
+            canvas.drawText(DAY_NAMES[column], left + cellWidth * (column + 0.5f), headerBaseline, headerPaint);
+        }
+        if (grid == null) {
+            return;
+        }
+
+        float textOffset = -(dayPaint.descent() + dayPaint.ascent()) / 2;
+        int cells = grid.rows * 7;
+        for (int cell = 0; cell < cells; cell++) {
+            float centerX = left + cellWidth * (cell % 7 + 0.5f);
+            float circleY = top + headerHeight + cellHeight * (cell / 7) + circleRadius + 2 * density;
+            long epochDay = grid.epochDayAt(cell);
+            boolean inMonth = grid.isInMonth(cell);
+
+            if (epochDay == selectedEpochDay && inMonth) {
+                canvas.drawCircle(centerX, circleY, circleRadius, selectedPaint);
+                dayPaint.setColor(selectedTextColor);
+            } else {
+                if (epochDay == todayEpochDay && inMonth) {
+                    canvas.drawCircle(centerX, circleY, circleRadius, todayPaint);
+                }
+                dayPaint.setColor(inMonth ? textColor : inactiveColor);
+            }
+            char[] number = DAY_NUMBERS[grid.dayOfMonth[cell]];
+            canvas.drawText(number, 0, number.length, centerX, circleY + textOffset, dayPaint);
+
+            int mask = inMonth ? grid.eventMask[cell] : 0;
+            if (mask != 0) {
+                drawDots(canvas, mask, centerX, circleY + circleRadius + dotRadius + 3 * density);
+            }
+        }
+    }
+
+    private void drawDots(Canvas canvas, int mask, float centerX, float y) {
+        int count = Integer.bitCount(mask & (CalendarEngine.TYPE_COURT | CalendarEngine.TYPE_MEETING | CalendarEngine.TYPE_PERSONAL));
+        float x = centerX - (count - 1) * dotSpacing / 2;
+        for (int i = 0; i < EVENT_TYPES.length; i++) {
+            if ((mask & EVENT_TYPES[i]) != 0) {
+                dotPaint.setColor(eventColors[i]);
+                canvas.drawCircle(x, y, dotRadius, dotPaint);
+                x += dotSpacing;
+            }
+        }
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        return gestureDetector.onTouchEvent(event) || super.onTouchEvent(event);
+    }
+
+    @Override
+    public boolean performClick() {
+        return super.performClick();
+    }
+
+    private boolean selectCellAt(float x, float y) {
+        if (grid == null) {
+            return false;
+        }
+        float gridTop = getPaddingTop() + headerHeight;
+        float cellWidth = (getWidth() - getPaddingLeft() - getPaddingRight()) / 7f;
+        int column = (int) ((x - getPaddingLeft()) / cellWidth);
+        int row = (int) ((y - gridTop) / cellHeight);
+        if (y < gridTop || column < 0 || column > 6 || row < 0 || row >= grid.rows) {
+            return false;
+        }
+        int cell = row * 7 + column;
+        if (!grid.isInMonth(cell)) {
+            return false;
+        }
+        performClick();
+        selectedEpochDay = grid.epochDayAt(cell);
+        invalidate();
+        if (onDaySelectedListener != null) {
+            onDaySelectedListener.onDaySelected(selectedEpochDay);
+        }
+        return true;
+    }
+}
@@ -1,19 +1,26 @@
 package com.example.lawway;
 
 import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.Timestamp;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QuerySnapshot;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class CaseHelper {
     private static final String COLLECTION_NAME = "cases";
-    private static final FirebaseFirestore db = FirebaseFirestore.getInstance();
+    private static final FirebaseFirestore db = FirestoreProvider.getInstance();
+    private static ReadPolicy readPolicy = ReadPolicy.CACHE_FIRST;
+    private static final EntityCache<Case> caseCache = new EntityCache<>(200, 5 * 60 * 1000L);
 
     public static Task<DocumentReference> createCase(Case caseObj) {
         caseObj.setStatus("pending");
@@ -26,64 +33,118 @@ public class CaseHelper {
     }
 
     public static Task<DocumentSnapshot> getCaseById(String caseId) {
-        return db.collection(COLLECTION_NAME)
-                .document(caseId)
-                .get();
+        return getCaseById(caseId, readPolicy);
+    }
+
+    public static Task<DocumentSnapshot> getCaseById(String caseId, ReadPolicy policy) {
+        return FirestoreProvider.get(db.collection(COLLECTION_NAME).document(caseId), policy);
+    }
+
+    public static Task<Case> getCase(String caseId) {
+        return caseCache.get(caseId, id -> getCaseById(id).continueWith(task -> documentToCase(task.getResult())));
+    }
+
+    public static Case getCachedCase(String caseId) {
+        return caseCache.getIfPresent(caseId);
+    }
+
+    public static EntityCache<Case> getCaseCache() {
+        return caseCache;
     }
 
     public static DocumentReference getCaseReference(String caseId) {
         return db.collection(COLLECTION_NAME).document(caseId);
     }
 
+    public static Task<Map<String, Case>> getCasesByIds(Collection<String> caseIds) {
+        Map<String, Case> cached = new HashMap<>();
+        List<String> ids = new ArrayList<>();
+        for (String id : BatchQueryHelper.distinctIds(caseIds)) {
+            Case caseObj = caseCache.getIfPresent(id);
+            if (caseObj != null) {
+                cached.put(id, caseObj);
+            } else {
+                ids.add(id);
+            }
+        }
+        if (ids.isEmpty()) {
+            return Tasks.forResult(cached);
+        }
+
+        List<Task<QuerySnapshot>> tasks = new ArrayList<>();
+        for (List<String> chunk : BatchQueryHelper.chunk(ids, BatchQueryHelper.MAX_WHERE_IN)) {
+            Query query = db.collection(COLLECTION_NAME).whereIn(FieldPath.documentId(), chunk);
+            tasks.add(FirestoreProvider.get(query, readPolicy, chunk.size()));
+        }
+
+        return Tasks.whenAllComplete(tasks).continueWith(task -> {
+            Map<String, Case> cases = new HashMap<>(cached);
+            for (Task<QuerySnapshot> chunkTask : tasks) {
+                if (!chunkTask.isSuccessful() || chunkTask.getResult() == null) {
+                    continue;
+                }
+                for (DocumentSnapshot document : chunkTask.getResult().getDocuments()) {
+                    Case caseObj = documentToCase(document);
+                    if (caseObj != null) {
+                        caseCache.put(caseObj.getCaseId(), caseObj);
+                        cases.put(caseObj.getCaseId(), caseObj);
+                    }
+                }
+            }
+            return cases;
+        });
+    }
+
     public static Task<QuerySnapshot> getCasesByClientId(String clientId) {
-        return db.collection(COLLECTION_NAME)
+        Query query = db.collection(COLLECTION_NAME)
                 .whereEqualTo("clientId", clientId)
                 .whereNotEqualTo("status", "deleted")
                 .orderBy("status")
-                .orderBy("createdAt", Query.Direction.DESCENDING)
-                .get();
+                .orderBy("createdAt", Query.Direction.DESCENDING);
+        return FirestoreProvider.get(query, readPolicy);
     }
 
     public static Task<QuerySnapshot> getActiveCasesByClientId(String clientId) {
-        return db.collection(COLLECTION_NAME)
+        Query query = db.collection(COLLECTION_NAME)
                 .whereEqualTo("clientId", clientId)
                 .whereIn("status", java.util.Arrays.asList("pending", "active"))
-                .orderBy("createdAt", Query.Direction.DESCENDING)
-                .get();
+                .orderBy("createdAt", Query.Direction.DESCENDING);
+        return FirestoreProvider.get(query, readPolicy);
     }
 
     public static Task<QuerySnapshot> getCasesByStatus(String status) {
-        return db.collection(COLLECTION_NAME)
+        Query query = db.collection(COLLECTION_NAME)
                 .whereEqualTo("status", status)
-                .orderBy("createdAt", Query.Direction.DESCENDING)
-                .get();
+                .orderBy("createdAt", Query.Direction.DESCENDING);
+        return FirestoreProvider.get(query, readPolicy);
     }
 
     public static Task<QuerySnapshot> getCasesByCategory(String category) {
-        return db.collection(COLLECTION_NAME)
+        Query query = db.collection(COLLECTION_NAME)
                 .whereEqualTo("category", category)
                 .whereNotEqualTo("status", "deleted")
-                .orderBy("createdAt", Query.Direction.DESCENDING)
-                .get();
+                .orderBy("createdAt", Query.Direction.DESCENDING);
+        return FirestoreProvider.get(query, readPolicy);
     }
 
     public static Task<QuerySnapshot> getCasesByPriority(String priority) {
-        return db.collection(COLLECTION_NAME)
+        Query query = db.collection(COLLECTION_NAME)
                 .whereEqualTo("priority", priority)
                 .whereNotEqualTo("status", "deleted")
-                .orderBy("createdAt", Query.Direction.DESCENDING)
-                .get();
+                .orderBy("createdAt", Query.Direction.DESCENDING);
+        return FirestoreProvider.get(query, readPolicy);
     }
 
     public static Task<QuerySnapshot> getAllCases() {
-        return db.collection(COLLECTION_NAME)
+        Query query = db.collection(COLLECTION_NAME)
                 .whereNotEqualTo("status", "deleted")
-                .orderBy("createdAt", Query.Direction.DESCENDING)
-                .get();
+                .orderBy("createdAt", Query.Direction.DESCENDING);
+        return FirestoreProvider.get(query, readPolicy);
     }
 
     public static Task<Void> updateCase(String caseId, Map<String, Object> updates) {
         updates.put("updatedAt", Timestamp.now());
+        caseCache.invalidate(caseId);
         return db.collection(COLLECTION_NAME)
                 .document(caseId)
                 .update(updates);
@@ -94,6 +155,7 @@ public class CaseHelper {
         updates.remove("caseId");
         updates.put("updatedAt", Timestamp.now());
         
+        caseCache.invalidate(caseId);
         return db.collection(COLLECTION_NAME)
                 .document(caseId)
                 .update(updates);
@@ -108,6 +170,7 @@ public class CaseHelper {
             updates.put("closedAt", Timestamp.now());
         }
         
+        caseCache.invalidate(caseId);
         return db.collection(COLLECTION_NAME)
                 .document(caseId)
                 .update(updates);
@@ -118,6 +181,7 @@ public class CaseHelper {
         updates.put("priority", priority);
         updates.put("updatedAt", Timestamp.now());
         
+        caseCache.invalidate(caseId);
         return db.collection(COLLECTION_NAME)
                 .document(caseId)
                 .update(updates);
@@ -129,17 +193,23 @@ public class CaseHelper {
         updates.put("deletedAt", Timestamp.now());
         updates.put("updatedAt", Timestamp.now());
         
+        caseCache.invalidate(caseId);
         return db.collection(COLLECTION_NAME)
                 .document(caseId)
                 .update(updates);
     }
 
     public static Task<Void> hardDeleteCase(String caseId) {
+        caseCache.invalidate(caseId);
         return db.collection(COLLECTION_NAME)
                 .document(caseId)
                 .delete();
     }
 
+    public static void setReadPolicy(ReadPolicy policy) {
+        readPolicy = policy;
+    }
+
     private static Map<String, Object> caseToMap(Case caseObj) {
         Map<String, Object> map = new HashMap<>();
         if (caseObj.getCaseId() != null) map.put("caseId", caseObj.getCaseId());
@@ -0,0 +1,128 @@
+package com.example.lawway;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class ChatHistoryStore extends SQLiteOpenHelper {
+    private static final String DATABASE_NAME = "chat_history.db";
+    private static final int DATABASE_VERSION = 1;
+    private static final String TABLE_MESSAGES = "messages";
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    private static ChatHistoryStore instance;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    public interface PageCallback {
+        void onPage(List<ChatMessage> messages, boolean hasMore);
+    }
+
+    public interface AppendCallback {
+        void onAppended(ChatMessage message);
+    }
+
+    public static synchronized ChatHistoryStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new ChatHistoryStore(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private ChatHistoryStore(Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_MESSAGES + " ("
+                + "id INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + "session_id TEXT NOT NULL, "
+                + "role TEXT NOT NULL, "
+                + "text TEXT NOT NULL, "
+                + "created_at INTEGER NOT NULL)");
+        db.execSQL("CREATE INDEX idx_messages_session_time ON " + TABLE_MESSAGES + " (session_id, created_at, id)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_MESSAGES);
+        onCreate(db);
+    }
+
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        super.onConfigure(db);
+        db.enableWriteAheadLogging();
+    }
+
+    public void append(String sessionId, String role, String text, AppendCallback callback) {
+        long createdAt = System.currentTimeMillis();
+        executor.execute(() -> {
+            ContentValues values = new ContentValues();
+            values.put("session_id", sessionId);
+            values.put("role", role);
+            values.put("text", text);
+            values.put("created_at", createdAt);
+            long id = getWritableDatabase().insert(TABLE_MESSAGES, null, values);
+
+            ChatMessage message = new ChatMessage(id, sessionId, role, text, createdAt);
+            if (callback != null) {
+                mainHandler.post(() -> callback.onAppended(message));
+            }
+        });
+    }
+
+    public void loadPage(String sessionId, ChatMessage before, int limit, PageCallback callback) {
+        String selection;
+        String[] args;
+        if (before == null) {
+            selection = "session_id = ?";
+            args = new String[]{sessionId};
+        } else {
+            selection = "session_id = ? AND (created_at < ? OR (created_at = ? AND id < ?))";
+            String createdAt = String.valueOf(before.getCreatedAt());
+            args = new String[]{sessionId, createdAt, createdAt, String.valueOf(before.getId())};
+        }
+
+        executor.execute(() -> {
+            List<ChatMessage> messages = new ArrayList<>();
+            try (Cursor cursor = getReadableDatabase().query(
+                    TABLE_MESSAGES,
+                    new String[]{"id", "role", "text", "created_at"},
+                    selection,
+                    args,
+                    null, null,
+                    "created_at DESC, id DESC",
+                    String.valueOf(limit + 1))) {
+                while (cursor.moveToNext() && messages.size() < limit) {
+                    messages.add(new ChatMessage(
+                            cursor.getLong(0),
+                            sessionId,
+                            cursor.getString(1),
+                            cursor.getString(2),
+                            cursor.getLong(3)));
+                }
+                boolean hasMore = cursor.getCount() > limit;
+                Collections.reverse(messages);
+                mainHandler.post(() -> callback.onPage(messages, hasMore));
+            }
+        });
+    }
+
+    public void clearSession(String sessionId) {
+        executor.execute(() -> getWritableDatabase().delete(TABLE_MESSAGES, "session_id = ?", new String[]{sessionId}));
+    }
+}
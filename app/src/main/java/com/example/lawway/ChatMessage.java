@@ -0,0 +1,44 @@
+package com.example.lawway;
+
+public class ChatMessage {
+    public static final String ROLE_USER = GeminiConversation.ROLE_USER;
+    public static final String ROLE_MODEL = GeminiConversation.ROLE_MODEL;
+
+    long id;
+    final String sessionId;
+    final String role;
+    String text;
+    final long createdAt;
+
+    public ChatMessage(long id, String sessionId, String role, String text, long createdAt) {
+        this.id = id;
+        this.sessionId = sessionId;
+        this.role = role;
+        this.text = text;
+        this.createdAt = createdAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public boolean isUser() {
+        return ROLE_USER.equals(role);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.lawway;
+
+import android.text.method.LinkMovementMethod;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.appcompat.widget.AppCompatTextView;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ChatMessageAdapter extends RecyclerView.Adapter<ChatMessageAdapter.ViewHolder> {
+    private static final int TYPE_USER = 0;
+    private static final int TYPE_BOT = 1;
+
+    private static final Object PAYLOAD_STREAMING = new Object();
+
+    private final List<ChatMessage> messages = new ArrayList<>();
+    private final ChatMessageFormatter formatter = ChatMessageFormatter.getInstance();
+
+    public void prependMessages(List<ChatMessage> older) {
+        if (older.isEmpty()) {
+            return;
+        }
+        messages.addAll(0, older);
+        notifyItemRangeInserted(0, older.size());
+    }
+
+    public void appendMessage(ChatMessage message) {
+        messages.add(message);
+        notifyItemInserted(messages.size() - 1);
+    }
+
+    public void updateMessage(ChatMessage message, boolean streaming) {
+        int position = messages.lastIndexOf(message);
+        if (position >= 0) {
+            notifyItemChanged(position, streaming ? PAYLOAD_STREAMING : null);
+        }
+    }
+
+    public ChatMessage getOldestMessage() {
+        return messages.isEmpty() ? null : messages.get(0);
+    }
+
+    @Override
+    public int getItemCount() {
+        return messages.size();
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return messages.get(position).isUser() ? TYPE_USER : TYPE_BOT;
+    }
+
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        int layout = viewType == TYPE_USER ? R.layout.item_chat_user : R.layout.item_chat_bot;
+        View view = LayoutInflater.from(parent.getContext()).inflate(layout, parent, false);
+        ViewHolder holder = new ViewHolder(view);
+        holder.tvMessage.setMaxWidth((int) (parent.getResources().getDisplayMetrics().widthPixels * 0.75));
+        if (viewType == TYPE_BOT) {
+            holder.tvMessage.setMovementMethod(LinkMovementMethod.getInstance());
+        }
+        return holder;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.contains(PAYLOAD_STREAMING)) {
+            // The bubble is still growing; precomputing every chunk would only be thrown away.
+            holder.tvMessage.setText(formatter.format(messages.get(position).getText()));
+            return;
+        }
+        onBindViewHolder(holder, position);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        ChatMessage message = messages.get(position);
+        if (message.isUser()) {
+            holder.tvMessage.setText(message.getText());
+            holder.tvTime.setText(holder.itemView.getContext().getString(R.string.read_at, formatter.formatTime(message.getCreatedAt())));
+            return;
+        }
+
+        PrecomputedTextCompat.Params params = TextViewCompat.getTextMetricsParams(holder.tvMessage);
+        PrecomputedTextCompat precomputed = formatter.getPrecomputed(message.getText(), params);
+        if (precomputed != null) {
+            TextViewCompat.setPrecomputedText(holder.tvMessage, precomputed);
+        } else if (holder.tvMessage instanceof AppCompatTextView) {
+            ((AppCompatTextView) holder.tvMessage).setTextFuture(formatter.precompute(message.getText(), params));
+        } else {
+            holder.tvMessage.setText(formatter.format(message.getText()));
+        }
+    }
+
+    static class ViewHolder extends RecyclerView.ViewHolder {
+        final TextView tvMessage;
+        final TextView tvTime;
+
+        ViewHolder(@NonNull View itemView) {
+            super(itemView);
+            tvMessage = itemView.findViewById(R.id.tvMessage);
+            tvTime = itemView.findViewById(R.id.tvTime);
+        }
+    }
+}
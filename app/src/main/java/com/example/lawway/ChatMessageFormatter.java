@@ -0,0 +1,96 @@
+package com.example.lawway;
+
+import android.text.Html;
+import android.text.Spanned;
+import android.text.format.DateUtils;
+import android.util.LruCache;
+
+import androidx.core.text.PrecomputedTextCompat;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ChatMessageFormatter {
+    private static final int SPANNED_CACHE_SIZE = 200;
+    private static final int PRECOMPUTED_CACHE_SIZE = 100;
+    private static final int TIME_CACHE_SIZE = 256;
+    private static final long MINUTE_MS = 60 * 1000;
+
+    private static ChatMessageFormatter instance;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final LruCache<String, Spanned> spannedCache = new LruCache<>(SPANNED_CACHE_SIZE);
+    private final LruCache<String, PrecomputedTextCompat> precomputedCache = new LruCache<>(PRECOMPUTED_CACHE_SIZE);
+    private final LruCache<Long, String> timeCache = new LruCache<>(TIME_CACHE_SIZE);
+    private final SimpleDateFormat timeFormat = new SimpleDateFormat("h:mm a", Locale.getDefault());
+    private final SimpleDateFormat dateTimeFormat = new SimpleDateFormat("MMM d, h:mm a", Locale.getDefault());
+
+    public static synchronized ChatMessageFormatter getInstance() {
+        if (instance == null) {
+            instance = new ChatMessageFormatter();
+        }
+        return instance;
+    }
+
+    private ChatMessageFormatter() {
+    }
+
+    public Spanned format(String message) {
+        Spanned cached = spannedCache.get(message);
+        if (cached != null) {
+            return cached;
+        }
+        Spanned formatted = toSpanned(message);
+        spannedCache.put(message, formatted);
+        return formatted;
+    }
+
+    public PrecomputedTextCompat getPrecomputed(String message, PrecomputedTextCompat.Params params) {
+        PrecomputedTextCompat cached = precomputedCache.get(message);
+        if (cached != null && cached.getParams().equals(params)) {
+            return cached;
+        }
+        return null;
+    }
+
+    public Future<PrecomputedTextCompat> precompute(String message, PrecomputedTextCompat.Params params) {
+        return executor.submit(() -> {
+            PrecomputedTextCompat precomputed = PrecomputedTextCompat.create(format(message), params);
+            precomputedCache.put(message, precomputed);
+            return precomputed;
+        });
+    }
+
+    public synchronized String formatTime(long timestamp) {
+        long minute = timestamp / MINUTE_MS;
+        boolean today = DateUtils.isToday(timestamp);
+        long key = minute * 2 + (today ? 1 : 0);
+        String cached = timeCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        Date date = new Date(minute * MINUTE_MS);
+        String formatted = today ? timeFormat.format(date) : dateTimeFormat.format(date);
+        timeCache.put(key, formatted);
+        return formatted;
+    }
+
+    private static Spanned toSpanned(String message) {
+        String formatted = message
+            .replace("\n\n", "<br><br>")
+            .replace("\n", "<br>")
+            .replace("**", "<b>").replace("**", "</b>")
+            .replace("* ", "• ")
+            .replace("•", "&bull;");
+
+        if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.N) {
+            return Html.fromHtml(formatted, Html.FROM_HTML_MODE_LEGACY);
+        } else {
+            return Html.fromHtml(formatted);
+        }
+    }
+}
@@ -16,7 +16,7 @@ import androidx.core.content.ContextCompat;
 
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.DocumentChange;
 import com.google.firebase.messaging.FirebaseMessaging;
 
 import java.util.Calendar;
@@ -32,7 +32,7 @@ public class ClientDashboardActivity extends AppCompatActivity {
     private RelativeLayout rlAiBanner;
 
     private FirebaseAuth auth;
-    private ListenerRegistration requestListener;
+    private LiveRequestStore requestStore;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -61,8 +61,8 @@ public class ClientDashboardActivity extends AppCompatActivity {
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        if (requestListener != null) {
-            requestListener.remove();
+        if (requestStore != null) {
+            requestStore.unsubscribe(requestStoreListener);
         }
     }
 
@@ -138,17 +138,14 @@ public class ClientDashboardActivity extends AppCompatActivity {
     private void loadUserData() {
         FirebaseUser user = auth.getCurrentUser();
         if (user != null) {
-            UserHelper.getUserById(user.getUid())
-                    .addOnSuccessListener(documentSnapshot -> {
-                        if (documentSnapshot.exists()) {
-                            User userObj = UserHelper.documentToUser(documentSnapshot);
-                            if (userObj != null) {
-                                if (userObj.getFullName() != null) {
-                                    updateGreetingWithName(userObj.getFullName());
-                                }
-                                if (userObj.getProfileImageUrl() != null && !userObj.getProfileImageUrl().isEmpty()) {
-                                    loadProfileImage(userObj.getProfileImageUrl());
-                                }
+            UserHelper.getUser(user.getUid())
+                    .addOnSuccessListener(userObj -> {
+                        if (userObj != null) {
+                            if (userObj.getFullName() != null) {
+                                updateGreetingWithName(userObj.getFullName());
+                            }
+                            if (userObj.getProfileImageUrl() != null && !userObj.getProfileImageUrl().isEmpty()) {
+                                loadProfileImage(userObj.getProfileImageUrl());
                             }
                         }
                     });
@@ -156,21 +153,7 @@ public class ClientDashboardActivity extends AppCompatActivity {
     }
 
     private void loadProfileImage(String imageUrl) {
-        if (imageUrl != null && !imageUrl.isEmpty()) {
-            new Thread(() -> {
-                try {
-                    java.net.URL url = new java.net.URL(imageUrl);
-                    android.graphics.Bitmap bitmap = android.graphics.BitmapFactory.decodeStream(url.openConnection().getInputStream());
-                    runOnUiThread(() -> {
-                        if (bitmap != null) {
-                            ivProfile.setImageBitmap(bitmap);
-                        }
-                    });
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
-            }).start();
-        }
+        ImageLoader.getInstance().load(this, imageUrl, ivProfile);
     }
 
     private void updateGreeting() {
@@ -218,45 +201,30 @@ public class ClientDashboardActivity extends AppCompatActivity {
             });
     }
 
+    private final LiveRequestStore.Listener requestStoreListener = (requests, changes) -> {
+        for (LiveRequestStore.RequestChange change : changes) {
+            Request request = change.getRequest();
+            if ((change.getType() == DocumentChange.Type.ADDED ||
+                 change.getType() == DocumentChange.Type.MODIFIED) &&
+                "accepted".equals(request.getStatus())) {
+                checkAndShowAcceptedNotification(request);
+            }
+        }
+    };
+
     private void setupRequestListener() {
         FirebaseUser user = auth.getCurrentUser();
         if (user == null) return;
 
-        com.google.firebase.firestore.FirebaseFirestore db = com.google.firebase.firestore.FirebaseFirestore.getInstance();
-        
-        requestListener = db.collection("requests")
-            .whereEqualTo("clientId", user.getUid())
-            .whereEqualTo("status", "accepted")
-            .addSnapshotListener((querySnapshot, error) -> {
-                if (error != null) {
-                    return;
-                }
-                
-                if (querySnapshot != null && !querySnapshot.isEmpty()) {
-                    for (com.google.firebase.firestore.DocumentChange change : querySnapshot.getDocumentChanges()) {
-                        if (change.getType() == com.google.firebase.firestore.DocumentChange.Type.ADDED || 
-                            change.getType() == com.google.firebase.firestore.DocumentChange.Type.MODIFIED) {
-                            Request request = RequestHelper.documentToRequest(change.getDocument());
-                            if (request != null) {
-                                checkAndShowAcceptedNotification(request);
-                            }
-                        }
-                    }
-                }
-            });
+        requestStore = LiveRequestStore.forUser(user.getUid(), LiveRequestStore.Role.CLIENT);
+        requestStore.subscribe(requestStoreListener);
     }
 
     private void checkAndShowAcceptedNotification(Request request) {
-        android.content.SharedPreferences prefs = getSharedPreferences("notifications", MODE_PRIVATE);
-        String key = "accepted_" + request.getRequestId();
-        if (!prefs.getBoolean(key, false)) {
-            NotificationHelper.showAcceptedNotification(
-                this,
-                "Request Accepted",
-                "Your case request has been accepted by the lawyer",
-                request.getRequestId()
-            );
-            prefs.edit().putBoolean(key, true).apply();
-        }
+        SeenIdStore.getInstance(this).markIfNew("accepted_" + request.getRequestId(), isNew -> {
+            if (isNew) {
+                NotificationAggregator.getInstance(this).addAccepted(request.getRequestId());
+            }
+        });
     }
 }
@@ -0,0 +1,149 @@
+package com.example.lawway;
+
+import android.os.SystemClock;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+
+public class EntityCache<T> {
+
+    public interface Loader<T> {
+        Task<T> load(String id);
+    }
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LinkedHashMap<String, Entry<T>> entries;
+    private final Map<String, Task<T>> inFlight = new HashMap<>();
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long coalescedCount;
+
+    public EntityCache(int maxSize, long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<String, Entry<T>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<T>> eldest) {
+                if (size() > EntityCache.this.maxSize) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public synchronized T getIfPresent(String id) {
+        Entry<T> entry = entries.get(id);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired()) {
+            entries.remove(id);
+            evictionCount++;
+            return null;
+        }
+        return entry.value;
+    }
+
+    public synchronized Task<T> get(String id, Loader<T> loader) {
+        T cached = getIfPresent(id);
+        if (cached != null) {
+            hitCount++;
+            return Tasks.forResult(cached);
+        }
+
+        Task<T> pending = inFlight.get(id);
+        if (pending != null) {
+            coalescedCount++;
+            return pending;
+        }
+
+        missCount++;
+        TaskCompletionSource<T> source = new TaskCompletionSource<>();
+        Task<T> task = source.getTask();
+        // Registered before the listener so a load that finishes at once cannot leave it behind.
+        inFlight.put(id, task);
+        loader.load(id).addOnCompleteListener(loaded -> {
+            synchronized (EntityCache.this) {
+                inFlight.remove(id, task);
+                if (loaded.isSuccessful() && loaded.getResult() != null) {
+                    entries.put(id, new Entry<>(loaded.getResult(), ttlMillis));
+                }
+            }
+            if (loaded.isSuccessful()) {
+                source.setResult(loaded.getResult());
+            } else {
+                Exception error = loaded.getException();
+                source.setException(error != null ? error : new CancellationException("Load of " + id + " was cancelled"));
+            }
+        });
+        return task;
+    }
+
+    public synchronized void put(String id, T value) {
+        if (id != null && value != null) {
+            entries.put(id, new Entry<>(value, ttlMillis));
+        }
+    }
+
+    public synchronized void invalidate(String id) {
+        entries.remove(id);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public synchronized long getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "EntityCache{size=" + entries.size() + "/" + maxSize
+                + ", hits=" + hitCount
+                + ", misses=" + missCount
+                + ", coalesced=" + coalescedCount
+                + ", evictions=" + evictionCount + "}";
+    }
+
+    private static class Entry<T> {
+        final T value;
+        final long expiresAt;
+
+        Entry(T value, long ttlMillis) {
+            this.value = value;
+            this.expiresAt = SystemClock.elapsedRealtime() + ttlMillis;
+        }
+
+        boolean isExpired() {
+            return SystemClock.elapsedRealtime() >= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.lawway;
+
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/** Calendar events in {@code events}; range reads need the index (lawyerId ASC, startAt ASC). */
+public class EventHelper {
+    public static final String TYPE_MEETING = "meeting";
+    public static final String TYPE_COURT = "court";
+    public static final String TYPE_PERSONAL = "personal";
+
+    private static final String COLLECTION_NAME = "events";
+    private static final FirebaseFirestore db = FirestoreProvider.getInstance();
+    private static ReadPolicy readPolicy = ReadPolicy.CACHE_FIRST;
+
+    public static Task<DocumentReference> createEvent(Event event) {
+        Map<String, Object> eventData = eventToMap(event);
+        eventData.put("createdAt", Timestamp.now());
+        eventData.put("updatedAt", Timestamp.now());
+
+        return db.collection(COLLECTION_NAME)
+                .add(eventData);
+    }
+
+    public static Task<DocumentSnapshot> getEventById(String eventId) {
+        return FirestoreProvider.get(db.collection(COLLECTION_NAME).document(eventId), readPolicy);
+    }
+
+    /** Events for {@code lawyerId} starting in [startMillis, endMillis), oldest first. */
+    public static Task<QuerySnapshot> getEventsInRange(String lawyerId, long startMillis, long endMillis) {
+        return getEventsInRange(lawyerId, startMillis, endMillis, readPolicy);
+    }
+
+    public static Task<QuerySnapshot> getEventsInRange(String lawyerId, long startMillis, long endMillis, ReadPolicy policy) {
+        return FirestoreProvider.get(eventsInRangeQuery(lawyerId, startMillis, endMillis), policy);
+    }
+
+    static Query eventsInRangeQuery(String lawyerId, long startMillis, long endMillis) {
+        return db.collection(COLLECTION_NAME)
+                .whereEqualTo("lawyerId", lawyerId)
+                .whereGreaterThanOrEqualTo("startAt", new Timestamp(new Date(startMillis)))
+                .whereLessThan("startAt", new Timestamp(new Date(endMillis)))
+                .orderBy("startAt");
+    }
+
+    public static Task<Void> updateEvent(String eventId, Map<String, Object> updates) {
+        updates.put("updatedAt", Timestamp.now());
+        return db.collection(COLLECTION_NAME)
+                .document(eventId)
+                .update(updates);
+    }
+
+    public static Task<Void> deleteEvent(String eventId) {
+        return db.collection(COLLECTION_NAME)
+                .document(eventId)
+                .delete();
+    }
+
+    public static void setReadPolicy(ReadPolicy policy) {
+        readPolicy = policy;
+    }
+
+    public static CalendarEngine.Appointment toAppointment(Event event) {
+        long startMillis = event.getStartAt().toDate().getTime();
+        long endMillis = event.getEndAt() != null ? event.getEndAt().toDate().getTime() : startMillis;
+        return new CalendarEngine.Appointment(event.getEventId(), startMillis, endMillis, appointmentType(event.getType()),
+                event.getTitle(), event.getDetails(), event.getParticipant(), event.isPriority());
+    }
+
+    private static int appointmentType(String type) {
+        if (TYPE_COURT.equals(type)) {
+            return CalendarEngine.TYPE_COURT;
+        }
+        if (TYPE_PERSONAL.equals(type)) {
+            return CalendarEngine.TYPE_PERSONAL;
+        }
+        return CalendarEngine.TYPE_MEETING;
+    }
+
+    private static Map<String, Object> eventToMap(Event event) {
+        Map<String, Object> map = new HashMap<>();
+        if (event.getLawyerId() != null) map.put("lawyerId", event.getLawyerId());
+        if (event.getClientId() != null) map.put("clientId", event.getClientId());
+        if (event.getCaseId() != null) map.put("caseId", event.getCaseId());
+        if (event.getTitle() != null) map.put("title", event.getTitle());
+        if (event.getDetails() != null) map.put("details", event.getDetails());
+        if (event.getParticipant() != null) map.put("participant", event.getParticipant());
+        map.put("type", event.getType() != null ? event.getType() : TYPE_MEETING);
+        if (event.getStartAt() != null) map.put("startAt", event.getStartAt());
+        if (event.getEndAt() != null) map.put("endAt", event.getEndAt());
+        map.put("priority", event.isPriority());
+
+        return map;
+    }
+
+    public static Event documentToEvent(DocumentSnapshot document) {
+        if (!document.exists() || document.getTimestamp("startAt") == null) return null;
+
+        Event event = new Event();
+        event.setEventId(document.getId());
+        event.setLawyerId(document.getString("lawyerId"));
+        event.setClientId(document.getString("clientId"));
+        event.setCaseId(document.getString("caseId"));
+        event.setTitle(document.getString("title"));
+        event.setDetails(document.getString("details"));
+        event.setParticipant(document.getString("participant"));
+        event.setType(document.getString("type"));
+        event.setStartAt(document.getTimestamp("startAt"));
+        event.setEndAt(document.getTimestamp("endAt"));
+        event.setPriority(Boolean.TRUE.equals(document.getBoolean("priority")));
+        event.setCreatedAt(document.getTimestamp("createdAt"));
+        event.setUpdatedAt(document.getTimestamp("updatedAt"));
+
+        return event;
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.lawway;
+
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/** A lawyer's calendar events, cached one month window at a time. */
+public class EventWindowStore {
+    private static final int MAX_WINDOWS = 12;
+
+    private static final Map<String, EventWindowStore> stores = new HashMap<>();
+
+    public interface Listener {
+        void onEventsChanged(List<Event> events);
+
+        default void onEventsError(Exception e) {
+        }
+    }
+
+    private static class Window {
+        final Map<String, Event> events = new HashMap<>();
+        boolean loaded;
+        boolean loading;
+    }
+
+    private final String lawyerId;
+    private final Map<Integer, Window> windows = new LinkedHashMap<>(16, 0.75f, true);
+    private final List<Listener> listeners = new ArrayList<>();
+
+    private ListenerRegistration registration;
+    private int visibleKey = Integer.MIN_VALUE;
+    private int listeningKey = Integer.MIN_VALUE;
+    private boolean awaitingFullSnapshot;
+
+    public static EventWindowStore forLawyer(String lawyerId) {
+        Iterator<EventWindowStore> iterator = stores.values().iterator();
+        while (iterator.hasNext()) {
+            EventWindowStore store = iterator.next();
+            if (!store.lawyerId.equals(lawyerId)) {
+                store.detach();
+                iterator.remove();
+            }
+        }
+
+        EventWindowStore store = stores.get(lawyerId);
+        if (store == null) {
+            store = new EventWindowStore(lawyerId);
+            stores.put(lawyerId, store);
+        }
+        return store;
+    }
+
+    private EventWindowStore(String lawyerId) {
+        this.lawyerId = lawyerId;
+    }
+
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+        if (!windows.isEmpty()) {
+            listener.onEventsChanged(getEvents());
+        }
+        if (visibleKey != Integer.MIN_VALUE && registration == null) {
+            attach(visibleKey);
+        }
+    }
+
+    public void unsubscribe(Listener listener) {
+        listeners.remove(listener);
+        if (listeners.isEmpty()) {
+            detach();
+        }
+    }
+
+    /** Makes {@code month} (0-based) the visible window, fetching it and its neighbours if not cached. */
+    public void showMonth(int year, int month) {
+        int key = year * 12 + month;
+        visibleKey = key;
+        for (int neighbour = key - 1; neighbour <= key + 1; neighbour++) {
+            if (neighbour != key) {
+                fetch(neighbour);
+            }
+        }
+        if (listeningKey != key || registration == null) {
+            attach(key);
+        }
+        trim();
+    }
+
+    public List<Event> getEvents() {
+        List<Event> events = new ArrayList<>();
+        for (Window window : windows.values()) {
+            events.addAll(window.events.values());
+        }
+        return events;
+    }
+
+    private Window window(int key) {
+        Window window = windows.get(key);
+        if (window == null) {
+            window = new Window();
+            windows.put(key, window);
+        }
+        return window;
+    }
+
+    private void fetch(int key) {
+        Window window = window(key);
+        if (window.loaded || window.loading) {
+            return;
+        }
+        window.loading = true;
+        EventHelper.getEventsInRange(lawyerId, windowStart(key), windowStart(key + 1), ReadPolicy.SERVER_ONLY)
+                .addOnCompleteListener(task -> {
+                    window.loading = false;
+                    if (!task.isSuccessful() || task.getResult() == null) {
+                        notifyError(task.getException());
+                        return;
+                    }
+                    // The live listener may have filled this window while the read was in flight.
+                    if (window.loaded) {
+                        return;
+                    }
+                    replaceAll(window, task.getResult());
+                    notifyChanged();
+                });
+    }
+
+    private void attach(int key) {
+        if (registration != null) {
+            registration.remove();
+        }
+        listeningKey = key;
+        awaitingFullSnapshot = true;
+        Window window = window(key);
+        registration = EventHelper.eventsInRangeQuery(lawyerId, windowStart(key), windowStart(key + 1))
+                .addSnapshotListener((snapshot, error) -> {
+                    if (error != null) {
+                        notifyError(error);
+                        return;
+                    }
+                    if (snapshot == null) {
+                        return;
+                    }
+                    if (awaitingFullSnapshot) {
+                        replaceAll(window, snapshot);
+                        awaitingFullSnapshot = false;
+                    } else {
+                        applyChanges(window, snapshot.getDocumentChanges());
+                    }
+                    notifyChanged();
+                });
+    }
+
+    private void detach() {
+        if (registration != null) {
+            registration.remove();
+            registration = null;
+        }
+        listeningKey = Integer.MIN_VALUE;
+    }
+
+    private void trim() {
+        Iterator<Map.Entry<Integer, Window>> iterator = windows.entrySet().iterator();
+        while (windows.size() > MAX_WINDOWS && iterator.hasNext()) {
+            int key = iterator.next().getKey();
+            if (Math.abs(key - visibleKey) > 1) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static void replaceAll(Window window, QuerySnapshot snapshot) {
+        window.events.clear();
+        for (DocumentSnapshot document : snapshot.getDocuments()) {
+            Event event = EventHelper.documentToEvent(document);
+            if (event != null) {
+                window.events.put(event.getEventId(), event);
+            }
+        }
+        window.loaded = true;
+    }
+
+    private static void applyChanges(Window window, List<DocumentChange> changes) {
+        for (DocumentChange change : changes) {
+            if (change.getType() == DocumentChange.Type.REMOVED) {
+                window.events.remove(change.getDocument().getId());
+                continue;
+            }
+            Event event = EventHelper.documentToEvent(change.getDocument());
+            if (event != null) {
+                window.events.put(event.getEventId(), event);
+            }
+        }
+    }
+
+    private void notifyChanged() {
+        List<Event> events = getEvents();
+        for (Listener listener : new ArrayList<>(listeners)) {
+            listener.onEventsChanged(events);
+        }
+    }
+
+    private void notifyError(Exception e) {
+        for (Listener listener : new ArrayList<>(listeners)) {
+            listener.onEventsError(e);
+        }
+    }
+
+    /** Local midnight on the 1st of the month {@code key} = year * 12 + month. */
+    private static long windowStart(int key) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(Math.floorDiv(key, 12), Math.floorMod(key, 12), 1);
+        return calendar.getTimeInMillis();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.lawway;
+
+import android.util.Log;
+
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreSettings;
+import com.google.firebase.firestore.PersistentCacheSettings;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.Source;
+
+public class FirestoreProvider {
+    private static final String TAG = "FirestoreProvider";
+    private static final long CACHE_SIZE_BYTES = 50L * 1024 * 1024;
+
+    private static FirebaseFirestore instance;
+
+    public static synchronized FirebaseFirestore getInstance() {
+        if (instance == null) {
+            FirebaseFirestore db = FirebaseFirestore.getInstance();
+            FirebaseFirestoreSettings settings = new FirebaseFirestoreSettings.Builder()
+                    .setLocalCacheSettings(PersistentCacheSettings.newBuilder()
+                            .setSizeBytes(CACHE_SIZE_BYTES)
+                            .build())
+                    .build();
+            try {
+                db.setFirestoreSettings(settings);
+            } catch (IllegalStateException e) {
+                Log.w(TAG, "Firestore was used before settings were applied", e);
+            }
+            instance = db;
+        }
+        return instance;
+    }
+
+    public static Task<DocumentSnapshot> get(DocumentReference reference, ReadPolicy policy) {
+        switch (policy) {
+            case SERVER_ONLY:
+                return reference.get(Source.SERVER);
+            case CACHE_ONLY:
+                return reference.get(Source.CACHE);
+            case CACHE_FIRST:
+            default:
+                return reference.get(Source.CACHE).continueWithTask(cached -> {
+                    if (cached.isSuccessful() && cached.getResult() != null && cached.getResult().exists()) {
+                        reference.get(Source.SERVER);
+                        return cached;
+                    }
+                    return reference.get();
+                });
+        }
+    }
+
+    public static Task<QuerySnapshot> get(Query query, ReadPolicy policy) {
+        switch (policy) {
+            case SERVER_ONLY:
+                return query.get(Source.SERVER);
+            case CACHE_ONLY:
+                return query.get(Source.CACHE);
+            case CACHE_FIRST:
+            default:
+                // A cached result cannot be told apart from a partial one for an open-ended query.
+                return query.get();
+        }
+    }
+
+    /** Cache-first read for lookups by known ids, where {@code expectedResults} is the full answer size. */
+
+    public static Task<QuerySnapshot> get(Query query, ReadPolicy policy, int expectedResults) {
+        switch (policy) {
+            case SERVER_ONLY:
+                return query.get(Source.SERVER);
+            case CACHE_ONLY:
+                return query.get(Source.CACHE);
+            case CACHE_FIRST:
+            default:
+                return query.get(Source.CACHE).continueWithTask(cached -> {
+                    if (cached.isSuccessful() && cached.getResult() != null
+                            && cached.getResult().size() >= expectedResults) {
+                        query.get(Source.SERVER);
+                        return cached;
+                    }
+                    return query.get();
+                });
+        }
+    }
+}
@@ -1,44 +1,58 @@
 package com.example.lawway;
 
 import android.os.Bundle;
-import android.text.Html;
-import android.text.Spanned;
-import android.view.View;
 import android.widget.EditText;
 import android.widget.ImageView;
-import android.widget.LinearLayout;
-import android.widget.RelativeLayout;
-import android.widget.ScrollView;
-import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
-import java.util.Locale;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+
+import java.util.List;
 
 public class GeminiChatActivity extends AppCompatActivity {
+    private static final String SYSTEM_INSTRUCTION = "You are Lexi, a helpful AI legal assistant. Provide clear and accurate legal information in a friendly and professional manner. Format your responses with proper structure using line breaks.";
+    private static final String WELCOME_MESSAGE = "Hello! I'm your AI legal assistant. I can help explain legal terms, draft simple documents, or find you a lawyer. How can I help today?";
+    private static final int PREFETCH_DISTANCE = 10;
 
-    private ScrollView svChat;
-    private LinearLayout llMessages;
+    private RecyclerView rvMessages;
+    private LinearLayoutManager layoutManager;
+    private ChatMessageAdapter adapter;
     private EditText etMessage;
     private ImageView ivSend, ivBack, ivAdd, ivMic;
-    private boolean isFirstMessage = true;
+    private boolean awaitingReply;
+    private final GeminiConversation conversation = new GeminiConversation(SYSTEM_INSTRUCTION);
+
+    private ChatHistoryStore historyStore;
+    private LegalFaqRetriever faqRetriever;
+    private String sessionId;
+    private boolean loadingHistory;
+    private boolean hasMoreHistory = true;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_gemini_chat);
 
+        historyStore = ChatHistoryStore.getInstance(this);
+        faqRetriever = LegalFaqRetriever.getInstance(this);
+        faqRetriever.warmUp();
+        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+        sessionId = user != null ? user.getUid() : "guest";
+
         initViews();
+        setupMessageList();
         setupClickListeners();
-        addWelcomeMessage();
+        loadLatestHistory();
     }
 
     private void initViews() {
-        svChat = findViewById(R.id.svChat);
-        llMessages = findViewById(R.id.llMessages);
+        rvMessages = findViewById(R.id.rvMessages);
         etMessage = findViewById(R.id.etMessage);
         ivSend = findViewById(R.id.ivSend);
         ivBack = findViewById(R.id.ivBack);
@@ -46,12 +60,28 @@ public class GeminiChatActivity extends AppCompatActivity {
         ivMic = findViewById(R.id.ivMic);
     }
 
+    private void setupMessageList() {
+        layoutManager = new LinearLayoutManager(this);
+        layoutManager.setStackFromEnd(true);
+        adapter = new ChatMessageAdapter();
+        rvMessages.setLayoutManager(layoutManager);
+        rvMessages.setAdapter(adapter);
+        rvMessages.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy < 0 && layoutManager.findFirstVisibleItemPosition() <= PREFETCH_DISTANCE) {
+                    loadOlderHistory();
+                }
+            }
+        });
+    }
+
     private void setupClickListeners() {
         ivBack.setOnClickListener(v -> finish());
 
         ivSend.setOnClickListener(v -> {
             String message = etMessage.getText().toString().trim();
-            if (!message.isEmpty()) {
+            if (!message.isEmpty() && !awaitingReply) {
                 sendMessage(message);
                 etMessage.setText("");
             }
@@ -65,7 +95,7 @@ public class GeminiChatActivity extends AppCompatActivity {
 
         etMessage.setOnEditorActionListener((v, actionId, event) -> {
             String message = etMessage.getText().toString().trim();
-            if (!message.isEmpty()) {
+            if (!message.isEmpty() && !awaitingReply) {
                 sendMessage(message);
                 etMessage.setText("");
                 return true;
@@ -74,97 +104,119 @@ public class GeminiChatActivity extends AppCompatActivity {
         });
     }
 
-    private void addWelcomeMessage() {
-        addDateSeparator();
-        
-        RelativeLayout messageLayout = new RelativeLayout(this);
-        messageLayout.setLayoutParams(new LinearLayout.LayoutParams(
-            LinearLayout.LayoutParams.MATCH_PARENT,
-            LinearLayout.LayoutParams.WRAP_CONTENT));
-        messageLayout.setPadding(0, 0, 0, 16);
-
-        RelativeLayout profileLayout = new RelativeLayout(this);
-        RelativeLayout.LayoutParams profileParams = new RelativeLayout.LayoutParams(40, 40);
-        profileLayout.setId(View.generateViewId());
-        profileLayout.setLayoutParams(profileParams);
-
-        ImageView profileImg = new ImageView(this);
-        RelativeLayout.LayoutParams profileImgParams = new RelativeLayout.LayoutParams(40, 40);
-        profileImg.setId(View.generateViewId());
-        profileImg.setLayoutParams(profileImgParams);
-        profileImg.setImageResource(R.drawable.ic_lexi_profile);
-        profileImg.setBackgroundResource(R.drawable.bg_category_circle);
-        profileImg.setScaleType(ImageView.ScaleType.CENTER_CROP);
-        profileLayout.addView(profileImg);
-
-        View onlineStatus = new View(this);
-        RelativeLayout.LayoutParams statusParams = new RelativeLayout.LayoutParams(10, 10);
-        statusParams.addRule(RelativeLayout.ALIGN_BOTTOM, profileImg.getId());
-        statusParams.addRule(RelativeLayout.ALIGN_END, profileImg.getId());
-        onlineStatus.setLayoutParams(statusParams);
-        onlineStatus.setBackgroundResource(R.drawable.bg_online_indicator);
-        profileLayout.addView(onlineStatus);
-
-        RelativeLayout.LayoutParams profileLayoutParams = new RelativeLayout.LayoutParams(
-            RelativeLayout.LayoutParams.WRAP_CONTENT,
-            RelativeLayout.LayoutParams.WRAP_CONTENT);
-        profileLayoutParams.addRule(RelativeLayout.ALIGN_PARENT_START);
-        profileLayout.setLayoutParams(profileLayoutParams);
-        messageLayout.addView(profileLayout);
-
-        TextView messageText = new TextView(this);
-        RelativeLayout.LayoutParams textParams = new RelativeLayout.LayoutParams(
-            RelativeLayout.LayoutParams.WRAP_CONTENT,
-            RelativeLayout.LayoutParams.WRAP_CONTENT);
-        textParams.addRule(RelativeLayout.END_OF, profileLayout.getId());
-        textParams.setMargins(56, 0, 16, 0);
-        messageText.setId(View.generateViewId());
-        messageText.setLayoutParams(textParams);
-        messageText.setText("Hello! I'm your AI legal assistant. I can help explain legal terms, draft simple documents, or find you a lawyer. How can I help today?");
-        messageText.setTextColor(getResources().getColor(R.color.chat_bot_text, null));
-        messageText.setTextSize(14);
-        messageText.setPadding(16, 12, 16, 12);
-        messageText.setBackgroundResource(R.drawable.bg_chat_bubble_left);
-        messageText.setMaxWidth((int) (getResources().getDisplayMetrics().widthPixels * 0.75));
-        messageLayout.addView(messageText);
+    private void loadLatestHistory() {
+        loadingHistory = true;
+        historyStore.loadPage(sessionId, null, ChatHistoryStore.DEFAULT_PAGE_SIZE, (messages, hasMore) -> {
+            loadingHistory = false;
+            hasMoreHistory = hasMore;
+            if (messages.isEmpty()) {
+                historyStore.append(sessionId, ChatMessage.ROLE_MODEL, WELCOME_MESSAGE, this::appendMessage);
+                return;
+            }
+            restoreConversation(messages);
+            adapter.prependMessages(messages);
+            scrollToBottom();
+        });
+    }
 
-        llMessages.addView(messageLayout);
-        scrollToBottom();
+    private void loadOlderHistory() {
+        if (loadingHistory || !hasMoreHistory) {
+            return;
+        }
+        ChatMessage oldest = adapter.getOldestMessage();
+        if (oldest == null) {
+            return;
+        }
+        loadingHistory = true;
+        historyStore.loadPage(sessionId, oldest, ChatHistoryStore.DEFAULT_PAGE_SIZE, (messages, hasMore) -> {
+            loadingHistory = false;
+            hasMoreHistory = hasMore;
+            adapter.prependMessages(messages);
+        });
     }
 
-    private void addDateSeparator() {
-        TextView dateSeparator = new TextView(this);
-        LinearLayout.LayoutParams params = new LinearLayout.LayoutParams(
-            LinearLayout.LayoutParams.WRAP_CONTENT,
-            LinearLayout.LayoutParams.WRAP_CONTENT);
-        params.gravity = android.view.Gravity.CENTER_HORIZONTAL;
-        params.setMargins(0, 0, 0, 16);
-        dateSeparator.setLayoutParams(params);
-        dateSeparator.setText(getString(R.string.today));
-        dateSeparator.setTextColor(getResources().getColor(R.color.chat_date_separator, null));
-        dateSeparator.setTextSize(12);
-        dateSeparator.setTypeface(null, android.graphics.Typeface.NORMAL);
-        llMessages.addView(dateSeparator);
+    private void restoreConversation(List<ChatMessage> messages) {
+        for (ChatMessage message : messages) {
+            if (message.isUser()) {
+                conversation.discardPendingUserTurn();
+                conversation.addUserTurn(message.getText());
+            } else if (conversation.getTurnCount() > 0) {
+                conversation.addModelTurn(message.getText());
+            }
+        }
+        conversation.discardPendingUserTurn();
     }
 
     private void sendMessage(String message) {
-        addUserMessage(message);
+        historyStore.append(sessionId, ChatMessage.ROLE_USER, message, null);
+        appendMessage(new ChatMessage(0, sessionId, ChatMessage.ROLE_USER, message, System.currentTimeMillis()));
+        awaitingReply = true;
+
+        faqRetriever.search(message, LegalFaqRetriever.DEFAULT_PASSAGES, result -> {
+            LegalFaqIndex.Passage local = result.getLocalAnswer();
+            if (local != null) {
+                answerLocally(message, local.getAnswer());
+            } else {
+                conversation.setReferenceMaterial(result.toReferenceMaterial());
+                requestReply(message);
+            }
+        });
+    }
+
+    private void answerLocally(String message, String answer) {
+        conversation.addUserTurn(message);
+        conversation.addModelTurn(answer);
+        historyStore.append(sessionId, ChatMessage.ROLE_MODEL, answer, null);
+        appendMessage(new ChatMessage(0, sessionId, ChatMessage.ROLE_MODEL, answer, System.currentTimeMillis()));
+        awaitingReply = false;
+    }
 
-        GeminiHelper.sendMessageWithContext(
+    private void requestReply(String message) {
+        ChatMessage reply = new ChatMessage(0, sessionId, ChatMessage.ROLE_MODEL, "", System.currentTimeMillis());
+        StringBuilder streamed = new StringBuilder();
+        boolean[] shown = new boolean[1];
+        conversation.addUserTurn(message);
+        GeminiHelper.sendConversationStream(
             GeminiConfig.API_KEY,
-            "You are Lexi, a helpful AI legal assistant. Provide clear and accurate legal information in a friendly and professional manner. Format your responses with proper structure using line breaks.",
-            message,
-            new GeminiHelper.GeminiCallback() {
+            conversation,
+            new GeminiHelper.GeminiStreamCallback() {
+                @Override
+                public void onPartial(String delta) {
+                    runOnUiThread(() -> {
+                        streamed.append(delta);
+                        reply.text = streamed.toString();
+                        if (!shown[0]) {
+                            shown[0] = true;
+                            appendMessage(reply);
+                        } else {
+                            adapter.updateMessage(reply, true);
+                            scrollToBottom();
+                        }
+                    });
+                }
+
                 @Override
-                public void onSuccess(String response) {
+                public void onComplete(String response) {
+                    conversation.addModelTurn(response);
+                    historyStore.append(sessionId, ChatMessage.ROLE_MODEL, response, null);
                     runOnUiThread(() -> {
-                        addBotMessage(response);
+                        awaitingReply = false;
+                        reply.text = response;
+                        if (!shown[0]) {
+                            shown[0] = true;
+                            appendMessage(reply);
+                        } else {
+                            adapter.updateMessage(reply, false);
+                            scrollToBottom();
+                        }
                     });
                 }
 
                 @Override
                 public void onError(String error) {
+                    conversation.discardPendingUserTurn();
                     runOnUiThread(() -> {
+                        awaitingReply = false;
                         Toast.makeText(GeminiChatActivity.this, "Error: " + error, Toast.LENGTH_SHORT).show();
                     });
                 }
@@ -172,128 +224,14 @@ public class GeminiChatActivity extends AppCompatActivity {
         );
     }
 
-    private void addUserMessage(String message) {
-        RelativeLayout messageLayout = new RelativeLayout(this);
-        LinearLayout.LayoutParams layoutParams = new LinearLayout.LayoutParams(
-            LinearLayout.LayoutParams.MATCH_PARENT,
-            LinearLayout.LayoutParams.WRAP_CONTENT);
-        layoutParams.setMargins(48, 0, 0, 16);
-        messageLayout.setLayoutParams(layoutParams);
-        messageLayout.setGravity(android.view.Gravity.END);
-
-        TextView messageText = new TextView(this);
-        RelativeLayout.LayoutParams textParams = new RelativeLayout.LayoutParams(
-            RelativeLayout.LayoutParams.WRAP_CONTENT,
-            RelativeLayout.LayoutParams.WRAP_CONTENT);
-        textParams.addRule(RelativeLayout.ALIGN_PARENT_END);
-        messageText.setId(View.generateViewId());
-        messageText.setLayoutParams(textParams);
-        messageText.setText(message);
-        messageText.setTextColor(getResources().getColor(R.color.chat_user_text, null));
-        messageText.setTextSize(14);
-        messageText.setPadding(16, 12, 16, 12);
-        messageText.setBackgroundResource(R.drawable.bg_chat_bubble_right);
-        messageText.setMaxWidth((int) (getResources().getDisplayMetrics().widthPixels * 0.75));
-        messageLayout.addView(messageText);
-
-        TextView timestamp = new TextView(this);
-        RelativeLayout.LayoutParams timeParams = new RelativeLayout.LayoutParams(
-            RelativeLayout.LayoutParams.WRAP_CONTENT,
-            RelativeLayout.LayoutParams.WRAP_CONTENT);
-        timeParams.addRule(RelativeLayout.BELOW, messageText.getId());
-        timeParams.addRule(RelativeLayout.ALIGN_END, messageText.getId());
-        timeParams.setMargins(0, 4, 0, 0);
-        timestamp.setLayoutParams(timeParams);
-        SimpleDateFormat sdf = new SimpleDateFormat("h:mm a", Locale.getDefault());
-        timestamp.setText(getString(R.string.read_at, sdf.format(Calendar.getInstance().getTime())));
-        timestamp.setTextColor(getResources().getColor(R.color.chat_text_secondary, null));
-        timestamp.setTextSize(11);
-        messageLayout.addView(timestamp);
-
-        llMessages.addView(messageLayout);
-        scrollToBottom();
-    }
-
-    private void addBotMessage(String message) {
-        RelativeLayout messageLayout = new RelativeLayout(this);
-        LinearLayout.LayoutParams layoutParams = new LinearLayout.LayoutParams(
-            LinearLayout.LayoutParams.MATCH_PARENT,
-            LinearLayout.LayoutParams.WRAP_CONTENT);
-        layoutParams.setMargins(0, 0, 0, 16);
-        messageLayout.setLayoutParams(layoutParams);
-
-        RelativeLayout profileLayout = new RelativeLayout(this);
-        RelativeLayout.LayoutParams profileParams = new RelativeLayout.LayoutParams(40, 40);
-        profileLayout.setId(View.generateViewId());
-        profileLayout.setLayoutParams(profileParams);
-
-        ImageView profileImg = new ImageView(this);
-        RelativeLayout.LayoutParams profileImgParams = new RelativeLayout.LayoutParams(40, 40);
-        profileImg.setId(View.generateViewId());
-        profileImg.setLayoutParams(profileImgParams);
-        profileImg.setImageResource(R.drawable.ic_lexi_profile);
-        profileImg.setBackgroundResource(R.drawable.bg_category_circle);
-        profileImg.setScaleType(ImageView.ScaleType.CENTER_CROP);
-        profileLayout.addView(profileImg);
-
-        RelativeLayout.LayoutParams profileLayoutParams = new RelativeLayout.LayoutParams(
-            RelativeLayout.LayoutParams.WRAP_CONTENT,
-            RelativeLayout.LayoutParams.WRAP_CONTENT);
-        profileLayoutParams.addRule(RelativeLayout.ALIGN_PARENT_START);
-        profileLayout.setLayoutParams(profileLayoutParams);
-        messageLayout.addView(profileLayout);
-
-        TextView nameText = new TextView(this);
-        RelativeLayout.LayoutParams nameParams = new RelativeLayout.LayoutParams(
-            RelativeLayout.LayoutParams.WRAP_CONTENT,
-            RelativeLayout.LayoutParams.WRAP_CONTENT);
-        nameParams.addRule(RelativeLayout.END_OF, profileLayout.getId());
-        nameParams.setMargins(56, 0, 16, 4);
-        nameText.setId(View.generateViewId());
-        nameText.setLayoutParams(nameParams);
-        nameText.setText(getString(R.string.lexi));
-        nameText.setTextColor(getResources().getColor(R.color.chat_text_primary, null));
-        nameText.setTextSize(12);
-        nameText.setTypeface(null, android.graphics.Typeface.BOLD);
-        messageLayout.addView(nameText);
-
-        TextView messageText = new TextView(this);
-        RelativeLayout.LayoutParams textParams = new RelativeLayout.LayoutParams(
-            RelativeLayout.LayoutParams.WRAP_CONTENT,
-            RelativeLayout.LayoutParams.WRAP_CONTENT);
-        textParams.addRule(RelativeLayout.END_OF, profileLayout.getId());
-        textParams.setMargins(56, 0, 16, 0);
-        textParams.addRule(RelativeLayout.BELOW, nameText.getId());
-        messageText.setLayoutParams(textParams);
-        messageText.setText(formatMessage(message));
-        messageText.setTextColor(getResources().getColor(R.color.chat_bot_text, null));
-        messageText.setTextSize(14);
-        messageText.setPadding(16, 12, 16, 12);
-        messageText.setBackgroundResource(R.drawable.bg_chat_bubble_left);
-        messageText.setMaxWidth((int) (getResources().getDisplayMetrics().widthPixels * 0.75));
-        messageText.setMovementMethod(android.text.method.LinkMovementMethod.getInstance());
-        messageLayout.addView(messageText);
-
-        llMessages.addView(messageLayout);
+    private void appendMessage(ChatMessage message) {
+        adapter.appendMessage(message);
         scrollToBottom();
     }
 
-    private Spanned formatMessage(String message) {
-        String formatted = message
-            .replace("\n\n", "<br><br>")
-            .replace("\n", "<br>")
-            .replace("**", "<b>").replace("**", "</b>")
-            .replace("* ", "• ")
-            .replace("•", "&bull;");
-        
-        if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.N) {
-            return Html.fromHtml(formatted, Html.FROM_HTML_MODE_LEGACY);
-        } else {
-            return Html.fromHtml(formatted);
-        }
-    }
-
     private void scrollToBottom() {
-        svChat.post(() -> svChat.fullScroll(View.FOCUS_DOWN));
+        if (adapter.getItemCount() > 0) {
+            rvMessages.scrollToPosition(adapter.getItemCount() - 1);
+        }
     }
 }
@@ -0,0 +1,164 @@
+package com.example.lawway;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class GeminiConversation {
+    public static final String ROLE_USER = "user";
+    public static final String ROLE_MODEL = "model";
+
+    public static final int DEFAULT_TOKEN_BUDGET = 4000;
+    private static final int CHARS_PER_TOKEN = 4;
+    private static final int SUMMARY_SNIPPET_CHARS = 160;
+
+    private final String systemInstruction;
+    private final int tokenBudget;
+    private final List<Turn> turns = new ArrayList<>();
+    private final List<String> summaryLines = new ArrayList<>();
+    private int evictedTurnCount;
+    private String referenceMaterial;
+
+    public GeminiConversation(String systemInstruction) {
+        this(systemInstruction, DEFAULT_TOKEN_BUDGET);
+    }
+
+    public GeminiConversation(String systemInstruction, int tokenBudget) {
+        this.systemInstruction = systemInstruction;
+        this.tokenBudget = tokenBudget;
+    }
+
+    public synchronized void addUserTurn(String text) {
+        turns.add(new Turn(ROLE_USER, text));
+    }
+
+    public synchronized void addModelTurn(String text) {
+        turns.add(new Turn(ROLE_MODEL, text));
+    }
+
+    public synchronized void discardPendingUserTurn() {
+        if (!turns.isEmpty() && ROLE_USER.equals(turns.get(turns.size() - 1).role)) {
+            turns.remove(turns.size() - 1);
+        }
+    }
+
+    /** Replaces the reference passages sent with the next request; null removes them. */
+    public synchronized void setReferenceMaterial(String referenceMaterial) {
+        this.referenceMaterial = referenceMaterial;
+    }
+
+    public synchronized void clear() {
+        turns.clear();
+        summaryLines.clear();
+        evictedTurnCount = 0;
+        referenceMaterial = null;
+    }
+
+    public synchronized int getTurnCount() {
+        return turns.size();
+    }
+
+    public synchronized int getEvictedTurnCount() {
+        return evictedTurnCount;
+    }
+
+    public synchronized int estimateRequestTokens() {
+        int total = estimateTokens(buildSystemInstruction());
+        for (Turn turn : turns) {
+            total += estimateTokens(turn.text);
+        }
+        return total;
+    }
+
+    public synchronized GeminiRequest buildRequest() {
+        enforceBudget();
+
+        List<GeminiRequest.Content> contents = new ArrayList<>();
+        for (Turn turn : turns) {
+            contents.add(new GeminiRequest.Content(turn.role, turn.text));
+        }
+        return new GeminiRequest(contents, buildSystemInstruction());
+    }
+
+    private void enforceBudget() {
+        // Evict whole user/model exchanges from the front so the history always
+        // starts with a user turn, and never drop the turn being answered.
+        while (estimateRequestTokens() > tokenBudget && turns.size() > 1) {
+            Turn evicted = turns.remove(0);
+            evictedTurnCount++;
+            if (ROLE_USER.equals(evicted.role)) {
+                summaryLines.add("- Client asked: " + snippet(evicted.text));
+            } else {
+                summaryLines.add("- Lexi answered: " + snippet(evicted.text));
+            }
+            while (turns.size() > 1 && !ROLE_USER.equals(turns.get(0).role)) {
+                Turn orphan = turns.remove(0);
+                evictedTurnCount++;
+                summaryLines.add("- Lexi answered: " + snippet(orphan.text));
+            }
+            trimSummary();
+        }
+    }
+
+    private void trimSummary() {
+        int summaryBudget = tokenBudget / 4;
+        int summaryTokens = 0;
+        for (String line : summaryLines) {
+            summaryTokens += estimateTokens(line);
+        }
+        while (summaryTokens > summaryBudget && !summaryLines.isEmpty()) {
+            summaryTokens -= estimateTokens(summaryLines.remove(0));
+        }
+    }
+
+    private String buildSystemInstruction() {
+        if (summaryLines.isEmpty() && referenceMaterial == null) {
+            return systemInstruction;
+        }
+        StringBuilder builder = new StringBuilder();
+        if (systemInstruction != null) {
+            builder.append(systemInstruction);
+        }
+        if (referenceMaterial != null) {
+            if (builder.length() > 0) {
+                builder.append("\n\n");
+            }
+            builder.append("Reference material (use it when relevant, and say when the question goes beyond it):\n")
+                    .append(referenceMaterial);
+        }
+        if (!summaryLines.isEmpty()) {
+            if (builder.length() > 0) {
+                builder.append("\n\n");
+            }
+            builder.append("Summary of the earlier conversation:");
+            for (String line : summaryLines) {
+                builder.append('\n').append(line);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static String snippet(String text) {
+        String collapsed = text.replaceAll("\\s+", " ").trim();
+        if (collapsed.length() <= SUMMARY_SNIPPET_CHARS) {
+            return collapsed;
+        }
+        return collapsed.substring(0, SUMMARY_SNIPPET_CHARS) + "…";
+    }
+
+    static int estimateTokens(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        return (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    private static class Turn {
+        final String role;
+        final String text;
+
+        Turn(String role, String text) {
+            this.role = role;
+            this.text = text;
+        }
+    }
+}
@@ -1,38 +1,50 @@
 package com.example.lawway;
 
+import android.os.SystemClock;
 import android.util.Log;
 
-import com.google.gson.Gson;
-
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
-import okhttp3.Call;
-import okhttp3.Callback;
-import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
 
 public class GeminiHelper {
     private static final String TAG = "GeminiHelper";
     private static final String BASE_URL = "https://generativelanguage.googleapis.com/v1beta/models/gemini-1.5-flash:generateContent?key=";
-    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+    private static final String STREAM_URL = "https://generativelanguage.googleapis.com/v1beta/models/gemini-1.5-flash:streamGenerateContent?alt=sse&key=";
     
-    private static final OkHttpClient client = new OkHttpClient.Builder()
+    private static final OkHttpClient client = HttpClientProvider.getClient().newBuilder()
             .connectTimeout(30, TimeUnit.SECONDS)
             .readTimeout(30, TimeUnit.SECONDS)
             .writeTimeout(30, TimeUnit.SECONDS)
             .build();
     
-    private static final Gson gson = new Gson();
+    private static final GeminiRequestScheduler scheduler = new GeminiRequestScheduler(client);
+    private static final Map<String, CallFanOut> inFlightCalls = new HashMap<>();
+    private static final Map<String, StreamFanOut> inFlightStreams = new HashMap<>();
+
+    private static volatile GeminiResponseCache responseCache;
 
     public interface GeminiCallback {
         void onSuccess(String response);
         void onError(String error);
     }
 
+    public interface GeminiStreamCallback {
+        void onPartial(String delta);
+        void onComplete(String response);
+        void onError(String error);
+    }
+
     public static void sendMessage(String apiKey, String message, GeminiCallback callback) {
         if (apiKey == null || apiKey.isEmpty()) {
             callback.onError("API key is required");
@@ -44,57 +56,103 @@ public class GeminiHelper {
             return;
         }
 
+        execute(apiKey, new GeminiRequest(message.trim()), callback);
+    }
+
+    public static void sendConversation(String apiKey, GeminiConversation conversation, GeminiCallback callback) {
+        if (apiKey == null || apiKey.isEmpty()) {
+            callback.onError("API key is required");
+            return;
+        }
+        execute(apiKey, conversation.buildRequest(), callback);
+    }
+
+    private static void execute(String apiKey, GeminiRequest request, GeminiCallback callback) {
+        String dedupeKey = dedupeKey("call", request);
+        CallFanOut fanOut;
+        synchronized (inFlightCalls) {
+            fanOut = inFlightCalls.get(dedupeKey);
+            if (fanOut != null) {
+                fanOut.add(callback);
+                return;
+            }
+            fanOut = new CallFanOut(dedupeKey);
+            fanOut.add(callback);
+            inFlightCalls.put(dedupeKey, fanOut);
+        }
+        executeCached(apiKey, request, fanOut);
+    }
+
+    private static void executeCached(String apiKey, GeminiRequest request, GeminiCallback callback) {
+        GeminiResponseCache cache = responseCache;
+        String prompt = cacheablePrompt(request);
+        if (cache == null || prompt == null) {
+            call(apiKey, request, callback);
+            return;
+        }
+
+        String scope = cacheScope(request);
+        cache.lookup(scope, prompt, cached -> {
+            if (cached != null) {
+                callback.onSuccess(cached);
+                return;
+            }
+            long startedAt = SystemClock.elapsedRealtime();
+            call(apiKey, request, new GeminiCallback() {
+                @Override
+                public void onSuccess(String response) {
+                    cache.put(scope, prompt, response, SystemClock.elapsedRealtime() - startedAt);
+                    callback.onSuccess(response);
+                }
+
+                @Override
+                public void onError(String error) {
+                    callback.onError(error);
+                }
+            });
+        });
+    }
+
+    private static void call(String apiKey, GeminiRequest request, GeminiCallback callback) {
         try {
-            GeminiRequest request = new GeminiRequest(message.trim());
-            String json = gson.toJson(request);
-            
-            RequestBody body = RequestBody.create(json, JSON);
+            RequestBody body = GeminiJsonCodec.requestBody(request);
             Request httpRequest = new Request.Builder()
                     .url(BASE_URL + apiKey)
                     .post(body)
                     .addHeader("Content-Type", "application/json")
                     .build();
 
-            client.newCall(httpRequest).enqueue(new Callback() {
+            scheduler.enqueue(apiKey, httpRequest, new GeminiRequestScheduler.Attempt() {
                 @Override
-                public void onFailure(Call call, IOException e) {
+                public void onFailure(IOException e) {
                     Log.e(TAG, "Network error: " + e.getMessage(), e);
                     callback.onError("Network error: " + e.getMessage());
                 }
 
                 @Override
-                public void onResponse(Call call, Response response) throws IOException {
-                    String responseBody = response.body() != null ? response.body().string() : "";
-                    
-                    if (response.isSuccessful()) {
+                public void onResponse(Response response) throws IOException {
+                    try (ResponseBody responseBody = response.body()) {
+                        if (!response.isSuccessful() || responseBody == null) {
+                            String errorBody = responseBody != null ? responseBody.string() : "";
+                            Log.e(TAG, "API error: " + response.code() + " - " + errorBody);
+                            callback.onError("API error: " + response.code() + " - " + errorBody);
+                            return;
+                        }
+
+                        String text;
                         try {
-                            GeminiResponse geminiResponse = gson.fromJson(responseBody, GeminiResponse.class);
-                            
-                            if (geminiResponse != null && 
-                                geminiResponse.getCandidates() != null && 
-                                geminiResponse.getCandidates().length > 0 &&
-                                geminiResponse.getCandidates()[0].getContent() != null &&
-                                geminiResponse.getCandidates()[0].getContent().getParts() != null &&
-                                geminiResponse.getCandidates()[0].getContent().getParts().length > 0) {
-                                
-                                String text = geminiResponse.getCandidates()[0].getContent().getParts()[0].getText();
-                                if (text != null && !text.isEmpty()) {
-                                    callback.onSuccess(text);
-                                } else {
-                                    callback.onError("Empty response from Gemini");
-                                }
-                            } else {
-                                Log.e(TAG, "Invalid response structure: " + responseBody);
-                                callback.onError("Invalid response structure");
-                            }
+                            text = GeminiJsonCodec.readText(responseBody.source());
                         } catch (Exception e) {
                             Log.e(TAG, "Parse error: " + e.getMessage(), e);
-                            Log.e(TAG, "Response body: " + responseBody);
                             callback.onError("Parse error: " + e.getMessage());
+                            return;
+                        }
+
+                        if (!text.isEmpty()) {
+                            callback.onSuccess(text);
+                        } else {
+                            callback.onError("Empty response from Gemini");
                         }
-                    } else {
-                        Log.e(TAG, "API error: " + response.code() + " - " + responseBody);
-                        callback.onError("API error: " + response.code() + " - " + responseBody);
                     }
                 }
             });
@@ -108,4 +166,283 @@ public class GeminiHelper {
         String fullMessage = systemInstruction + "\n\nUser: " + message;
         sendMessage(apiKey, fullMessage, callback);
     }
+
+    public static void sendMessageStream(String apiKey, String message, GeminiStreamCallback callback) {
+        if (apiKey == null || apiKey.isEmpty()) {
+            callback.onError("API key is required");
+            return;
+        }
+
+        if (message == null || message.trim().isEmpty()) {
+            callback.onError("Message cannot be empty");
+            return;
+        }
+
+        stream(apiKey, new GeminiRequest(message.trim()), callback);
+    }
+
+    public static void sendConversationStream(String apiKey, GeminiConversation conversation, GeminiStreamCallback callback) {
+        if (apiKey == null || apiKey.isEmpty()) {
+            callback.onError("API key is required");
+            return;
+        }
+        stream(apiKey, conversation.buildRequest(), callback);
+    }
+
+    private static void stream(String apiKey, GeminiRequest request, GeminiStreamCallback callback) {
+        String dedupeKey = dedupeKey("stream", request);
+        StreamFanOut fanOut;
+        synchronized (inFlightStreams) {
+            fanOut = inFlightStreams.get(dedupeKey);
+            if (fanOut != null) {
+                fanOut.add(callback);
+                return;
+            }
+            fanOut = new StreamFanOut(dedupeKey);
+            fanOut.add(callback);
+            inFlightStreams.put(dedupeKey, fanOut);
+        }
+        streamCached(apiKey, request, fanOut);
+    }
+
+    private static void streamCached(String apiKey, GeminiRequest request, GeminiStreamCallback callback) {
+        GeminiResponseCache cache = responseCache;
+        String prompt = cacheablePrompt(request);
+        if (cache == null || prompt == null) {
+            callStream(apiKey, request, callback);
+            return;
+        }
+
+        String scope = cacheScope(request);
+        cache.lookup(scope, prompt, cached -> {
+            if (cached != null) {
+                callback.onPartial(cached);
+                callback.onComplete(cached);
+                return;
+            }
+            long startedAt = SystemClock.elapsedRealtime();
+            callStream(apiKey, request, new GeminiStreamCallback() {
+                @Override
+                public void onPartial(String delta) {
+                    callback.onPartial(delta);
+                }
+
+                @Override
+                public void onComplete(String response) {
+                    cache.put(scope, prompt, response, SystemClock.elapsedRealtime() - startedAt);
+                    callback.onComplete(response);
+                }
+
+                @Override
+                public void onError(String error) {
+                    callback.onError(error);
+                }
+            });
+        });
+    }
+
+    private static void callStream(String apiKey, GeminiRequest request, GeminiStreamCallback callback) {
+        try {
+            RequestBody body = GeminiJsonCodec.requestBody(request);
+            Request httpRequest = new Request.Builder()
+                    .url(STREAM_URL + apiKey)
+                    .post(body)
+                    .addHeader("Content-Type", "application/json")
+                    .addHeader("Accept", "text/event-stream")
+                    .build();
+
+            long startedAt = SystemClock.elapsedRealtime();
+            scheduler.enqueue(apiKey, httpRequest, new GeminiRequestScheduler.Attempt() {
+                @Override
+                public void onFailure(IOException e) {
+                    Log.e(TAG, "Network error: " + e.getMessage(), e);
+                    callback.onError("Network error: " + e.getMessage());
+                }
+
+                @Override
+                public void onResponse(Response response) throws IOException {
+                    try (ResponseBody responseBody = response.body()) {
+                        if (!response.isSuccessful() || responseBody == null) {
+                            String errorBody = responseBody != null ? responseBody.string() : "";
+                            Log.e(TAG, "API error: " + response.code() + " - " + errorBody);
+                            callback.onError("API error: " + response.code() + " - " + errorBody);
+                            return;
+                        }
+                        readEvents(responseBody.source(), startedAt, callback);
+                    }
+                }
+            });
+        } catch (Exception e) {
+            Log.e(TAG, "Exception: " + e.getMessage(), e);
+            callback.onError("Exception: " + e.getMessage());
+        }
+    }
+
+    public static void sendMessageWithContextStream(String apiKey, String systemInstruction, String message, GeminiStreamCallback callback) {
+        String fullMessage = systemInstruction + "\n\nUser: " + message;
+        sendMessageStream(apiKey, fullMessage, callback);
+    }
+
+    private static void readEvents(BufferedSource source, long startedAt, GeminiStreamCallback callback) {
+        StringBuilder text = new StringBuilder();
+        StringBuilder data = new StringBuilder();
+        try {
+            String line;
+            while ((line = source.readUtf8Line()) != null) {
+                if (line.startsWith("data:")) {
+                    if (data.length() > 0) data.append('\n');
+                    data.append(line.substring(5).trim());
+                } else if (line.isEmpty() && data.length() > 0) {
+                    dispatchEvent(data.toString(), text, startedAt, callback);
+                    data.setLength(0);
+                }
+            }
+            if (data.length() > 0) {
+                dispatchEvent(data.toString(), text, startedAt, callback);
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Stream interrupted: " + e.getMessage(), e);
+            callback.onError("Network error: " + e.getMessage());
+            return;
+        } catch (Exception e) {
+            Log.e(TAG, "Parse error: " + e.getMessage(), e);
+            callback.onError("Parse error: " + e.getMessage());
+            return;
+        }
+
+        if (text.length() == 0) {
+            callback.onError("Empty response from Gemini");
+        } else {
+            Log.d(TAG, "Stream completed in " + (SystemClock.elapsedRealtime() - startedAt) + " ms");
+            callback.onComplete(text.toString());
+        }
+    }
+
+    private static void dispatchEvent(String payload, StringBuilder text, long startedAt, GeminiStreamCallback callback) throws IOException {
+        String delta = GeminiJsonCodec.readText(payload);
+        if (delta.isEmpty()) {
+            return;
+        }
+        if (text.length() == 0) {
+            Log.d(TAG, "First token after " + (SystemClock.elapsedRealtime() - startedAt) + " ms");
+        }
+        text.append(delta);
+        callback.onPartial(delta);
+    }
+
+    public static void setResponseCache(GeminiResponseCache cache) {
+        responseCache = cache;
+    }
+
+    private static String cacheablePrompt(GeminiRequest request) {
+        List<GeminiRequest.Content> contents = request.getContents();
+        if (contents == null || contents.size() != 1 || contents.get(0).getParts() == null) {
+            return null;
+        }
+        StringBuilder builder = new StringBuilder();
+        for (GeminiRequest.Content.Part part : contents.get(0).getParts()) {
+            if (part.getText() != null) {
+                builder.append(part.getText());
+            }
+        }
+        return builder.length() > 0 ? builder.toString() : null;
+    }
+
+    private static String cacheScope(GeminiRequest request) {
+        GeminiRequest.Content instruction = request.getSystemInstruction();
+        if (instruction == null || instruction.getParts() == null || instruction.getParts().isEmpty()) {
+            return "";
+        }
+        return instruction.getParts().get(0).getText();
+    }
+
+    private static String dedupeKey(String mode, GeminiRequest request) {
+        try {
+            return mode + ":" + GeminiJsonCodec.digest(request);
+        } catch (IOException e) {
+            return mode + ":" + System.identityHashCode(request);
+        }
+    }
+
+    private static class CallFanOut implements GeminiCallback {
+        private final String key;
+        private final List<GeminiCallback> callbacks = new ArrayList<>();
+
+        CallFanOut(String key) {
+            this.key = key;
+        }
+
+        void add(GeminiCallback callback) {
+            callbacks.add(callback);
+        }
+
+        private List<GeminiCallback> detach() {
+            synchronized (inFlightCalls) {
+                inFlightCalls.remove(key);
+                return new ArrayList<>(callbacks);
+            }
+        }
+
+        @Override
+        public void onSuccess(String response) {
+            for (GeminiCallback callback : detach()) {
+                callback.onSuccess(response);
+            }
+        }
+
+        @Override
+        public void onError(String error) {
+            for (GeminiCallback callback : detach()) {
+                callback.onError(error);
+            }
+        }
+    }
+
+    private static class StreamFanOut implements GeminiStreamCallback {
+        private final String key;
+        private final List<GeminiStreamCallback> callbacks = new ArrayList<>();
+        private final StringBuilder received = new StringBuilder();
+
+        StreamFanOut(String key) {
+            this.key = key;
+        }
+
+        synchronized void add(GeminiStreamCallback callback) {
+            callbacks.add(callback);
+            if (received.length() > 0) {
+                callback.onPartial(received.toString());
+            }
+        }
+
+        private List<GeminiStreamCallback> detach() {
+            synchronized (inFlightStreams) {
+                inFlightStreams.remove(key);
+            }
+            synchronized (this) {
+                return new ArrayList<>(callbacks);
+            }
+        }
+
+        @Override
+        public synchronized void onPartial(String delta) {
+            received.append(delta);
+            for (GeminiStreamCallback callback : callbacks) {
+                callback.onPartial(delta);
+            }
+        }
+
+        @Override
+        public void onComplete(String response) {
+            for (GeminiStreamCallback callback : detach()) {
+                callback.onComplete(response);
+            }
+        }
+
+        @Override
+        public void onError(String error) {
+            for (GeminiStreamCallback callback : detach()) {
+                callback.onError(error);
+            }
+        }
+    }
 }
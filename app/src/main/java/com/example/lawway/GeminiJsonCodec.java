@@ -0,0 +1,148 @@
+package com.example.lawway;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.HashingSink;
+import okio.Okio;
+
+public class GeminiJsonCodec {
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    public static RequestBody requestBody(GeminiRequest request) {
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return JSON;
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                write(request, sink);
+            }
+        };
+    }
+
+    public static String digest(GeminiRequest request) throws IOException {
+        HashingSink hashingSink = HashingSink.sha1(Okio.blackhole());
+        try (BufferedSink sink = Okio.buffer(hashingSink)) {
+            write(request, sink);
+        }
+        return hashingSink.hash().hex();
+    }
+
+    static void write(GeminiRequest request, BufferedSink sink) throws IOException {
+        JsonWriter writer = new JsonWriter(new OutputStreamWriter(sink.outputStream(), StandardCharsets.UTF_8));
+        writer.beginObject();
+        writer.name("contents").beginArray();
+        if (request.getContents() != null) {
+            for (GeminiRequest.Content content : request.getContents()) {
+                writeContent(writer, content);
+            }
+        }
+        writer.endArray();
+        if (request.getSystemInstruction() != null) {
+            writer.name("systemInstruction");
+            writeContent(writer, request.getSystemInstruction());
+        }
+        writer.endObject();
+        writer.flush();
+    }
+
+    private static void writeContent(JsonWriter writer, GeminiRequest.Content content) throws IOException {
+        writer.beginObject();
+        if (content.getRole() != null) {
+            writer.name("role").value(content.getRole());
+        }
+        writer.name("parts").beginArray();
+        List<GeminiRequest.Content.Part> parts = content.getParts();
+        if (parts != null) {
+            for (GeminiRequest.Content.Part part : parts) {
+                writer.beginObject();
+                writer.name("text").value(part.getText());
+                writer.endObject();
+            }
+        }
+        writer.endArray();
+        writer.endObject();
+    }
+
+    public static String readText(BufferedSource source) throws IOException {
+        return readText(new InputStreamReader(source.inputStream(), StandardCharsets.UTF_8));
+    }
+
+    public static String readText(String json) throws IOException {
+        return readText(new StringReader(json));
+    }
+
+    private static String readText(Reader input) throws IOException {
+        StringBuilder text = new StringBuilder();
+        JsonReader reader = new JsonReader(input);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if ("candidates".equals(reader.nextName()) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                if (reader.hasNext()) {
+                    readCandidate(reader, text);
+                }
+                while (reader.hasNext()) {
+                    reader.skipValue();
+                }
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return text.toString();
+    }
+
+    private static void readCandidate(JsonReader reader, StringBuilder text) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if ("content".equals(reader.nextName()) && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    if ("parts".equals(reader.nextName()) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                        readParts(reader, text);
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    private static void readParts(JsonReader reader, StringBuilder text) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if ("text".equals(reader.nextName()) && reader.peek() == JsonToken.STRING) {
+                    text.append(reader.nextString());
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        reader.endArray();
+    }
+}
@@ -5,23 +5,49 @@ import java.util.List;
 
 public class GeminiRequest {
     private List<Content> contents;
+    private Content systemInstruction;
 
     public GeminiRequest(String text) {
         this.contents = new ArrayList<>();
-        Content.Part part = new Content.Part(text);
-        Content content = new Content();
-        content.parts = new ArrayList<>();
-        content.parts.add(part);
-        this.contents.add(content);
+        this.contents.add(new Content(null, text));
+    }
+
+    public GeminiRequest(List<Content> contents, String systemInstruction) {
+        this.contents = contents;
+        if (systemInstruction != null && !systemInstruction.isEmpty()) {
+            this.systemInstruction = new Content(null, systemInstruction);
+        }
     }
 
     public List<Content> getContents() {
         return contents;
     }
 
+    public Content getSystemInstruction() {
+        return systemInstruction;
+    }
+
     public static class Content {
+        private String role;
         private List<Part> parts;
 
+        public Content() {
+        }
+
+        public Content(String role, String text) {
+            this.role = role;
+            this.parts = new ArrayList<>();
+            this.parts.add(new Part(text));
+        }
+
+        public String getRole() {
+            return role;
+        }
+
+        public void setRole(String role) {
+            this.role = role;
+        }
+
         public List<Part> getParts() {
             return parts;
         }
@@ -0,0 +1,264 @@
+package com.example.lawway;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+public class GeminiRequestScheduler {
+    private static final String TAG = "GeminiRequestScheduler";
+
+    public static final int DEFAULT_MAX_CONCURRENT_PER_KEY = 2;
+    public static final int DEFAULT_BUCKET_CAPACITY = 5;
+    public static final double DEFAULT_REQUESTS_PER_MINUTE = 15;
+    public static final int DEFAULT_MAX_RETRIES = 4;
+    private static final long BASE_BACKOFF_MS = 1000;
+    private static final long MAX_BACKOFF_MS = 30000;
+
+    /** The key's concurrency slot is held until onResponse returns, so consume the body there; if it throws, onFailure follows. */
+    public interface Attempt {
+        void onResponse(Response response) throws IOException;
+        void onFailure(IOException e);
+    }
+
+    interface Clock {
+        long elapsedRealtime();
+        long currentTimeMillis();
+    }
+
+    private static final Clock SYSTEM_CLOCK = new Clock() {
+        @Override
+        public long elapsedRealtime() {
+            return SystemClock.elapsedRealtime();
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return System.currentTimeMillis();
+        }
+    };
+
+    private final OkHttpClient client;
+    private final Clock clock;
+    private final int maxConcurrentPerKey;
+    private final int bucketCapacity;
+    private final double tokensPerMs;
+    private final int maxRetries;
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+    private final Random random = new Random();
+    private final Map<String, KeyState> keys = new HashMap<>();
+
+    private double tokens;
+    private long lastRefillAt;
+    private boolean drainScheduled;
+    private final ArrayDeque<Job> waitingForToken = new ArrayDeque<>();
+
+    public GeminiRequestScheduler(OkHttpClient client) {
+        this(client, DEFAULT_MAX_CONCURRENT_PER_KEY, DEFAULT_BUCKET_CAPACITY, DEFAULT_REQUESTS_PER_MINUTE, DEFAULT_MAX_RETRIES);
+    }
+
+    public GeminiRequestScheduler(OkHttpClient client, int maxConcurrentPerKey, int bucketCapacity,
+                                  double requestsPerMinute, int maxRetries) {
+        this(client, maxConcurrentPerKey, bucketCapacity, requestsPerMinute, maxRetries, SYSTEM_CLOCK);
+    }
+
+    GeminiRequestScheduler(OkHttpClient client, int maxConcurrentPerKey, int bucketCapacity,
+                           double requestsPerMinute, int maxRetries, Clock clock) {
+        this.client = client;
+        this.clock = clock;
+        this.maxConcurrentPerKey = maxConcurrentPerKey;
+        this.bucketCapacity = bucketCapacity;
+        this.tokensPerMs = requestsPerMinute / 60000.0;
+        this.maxRetries = maxRetries;
+        this.tokens = bucketCapacity;
+        this.lastRefillAt = clock.elapsedRealtime();
+    }
+
+    public void enqueue(String key, Request request, Attempt attempt) {
+        Job job = new Job(key, request, attempt);
+        synchronized (this) {
+            stateFor(key).waiting.add(job);
+        }
+        dispatch(key);
+    }
+
+    private void dispatch(String key) {
+        synchronized (this) {
+            KeyState state = stateFor(key);
+            while (state.active < maxConcurrentPerKey && !state.waiting.isEmpty()) {
+                state.active++;
+                waitingForToken.add(state.waiting.poll());
+            }
+        }
+        drainTokens();
+    }
+
+    private void drainTokens() {
+        long waitMs = 0;
+        while (true) {
+            Job job;
+            synchronized (this) {
+                if (waitingForToken.isEmpty()) {
+                    return;
+                }
+                refill();
+                if (tokens < 1) {
+                    if (drainScheduled) {
+                        return;
+                    }
+                    drainScheduled = true;
+                    waitMs = (long) Math.ceil((1 - tokens) / tokensPerMs);
+                    break;
+                }
+                tokens -= 1;
+                job = waitingForToken.poll();
+            }
+            send(job);
+        }
+
+        timer.schedule(() -> {
+            synchronized (this) {
+                drainScheduled = false;
+            }
+            drainTokens();
+        }, waitMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void refill() {
+        long now = clock.elapsedRealtime();
+        tokens = Math.min(bucketCapacity, tokens + (now - lastRefillAt) * tokensPerMs);
+        lastRefillAt = now;
+    }
+
+    private void send(Job job) {
+        client.newCall(job.request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                if (job.retries < maxRetries) {
+                    retry(job, backoff(job.retries), "network error: " + e.getMessage());
+                    return;
+                }
+                finish(job);
+                job.attempt.onFailure(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) throws IOException {
+                if (isRetryable(response.code()) && job.retries < maxRetries) {
+                    long delay = retryAfter(response);
+                    response.close();
+                    retry(job, delay >= 0 ? delay : backoff(job.retries), "HTTP " + response.code());
+                    return;
+                }
+                IOException failure = null;
+                try {
+                    job.attempt.onResponse(response);
+                } catch (IOException e) {
+                    failure = e;
+                } catch (RuntimeException e) {
+                    failure = new IOException(e);
+                } finally {
+                    response.close();
+                    finish(job);
+                }
+                // A body that fails mid-read must still reach the caller, or it waits for a reply forever.
+                if (failure != null) {
+                    job.attempt.onFailure(failure);
+                }
+            }
+        });
+    }
+
+    private void retry(Job job, long delayMs, String reason) {
+        job.retries++;
+        Log.w(TAG, "Retrying in " + delayMs + " ms after " + reason + " (attempt " + job.retries + ")");
+        finish(job);
+        timer.schedule(() -> enqueueRetry(job), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void enqueueRetry(Job job) {
+        synchronized (this) {
+            stateFor(job.key).waiting.addFirst(job);
+        }
+        dispatch(job.key);
+    }
+
+    private void finish(Job job) {
+        synchronized (this) {
+            KeyState state = stateFor(job.key);
+            state.active = Math.max(0, state.active - 1);
+            if (state.active == 0 && state.waiting.isEmpty()) {
+                keys.remove(job.key);
+            }
+        }
+        dispatch(job.key);
+    }
+
+    private long backoff(int retries) {
+        long ceiling = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << Math.min(retries, 16));
+        synchronized (random) {
+            return ceiling / 2 + (long) (random.nextDouble() * (ceiling / 2));
+        }
+    }
+
+    static boolean isRetryable(int code) {
+        return code == 429 || code == 500 || code == 502 || code == 503 || code == 504;
+    }
+
+    long retryAfter(Response response) {
+        String header = response.header("Retry-After");
+        if (header == null) {
+            return -1;
+        }
+        try {
+            return Math.max(0, Long.parseLong(header.trim()) * 1000);
+        } catch (NumberFormatException e) {
+            Date date = response.headers().getDate("Retry-After");
+            if (date == null) {
+                return -1;
+            }
+            return Math.max(0, date.getTime() - clock.currentTimeMillis());
+        }
+    }
+
+    private KeyState stateFor(String key) {
+        KeyState state = keys.get(key);
+        if (state == null) {
+            state = new KeyState();
+            keys.put(key, state);
+        }
+        return state;
+    }
+
+    private static class KeyState {
+        final ArrayDeque<Job> waiting = new ArrayDeque<>();
+        int active;
+    }
+
+    private static class Job {
+        final String key;
+        final Request request;
+        final Attempt attempt;
+        int retries;
+
+        Job(String key, Request request, Attempt attempt) {
+            this.key = key;
+            this.request = request;
+            this.attempt = attempt;
+        }
+    }
+}
@@ -0,0 +1,439 @@
+package com.example.lawway;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class GeminiResponseCache {
+    private static final String TAG = "GeminiResponseCache";
+    private static final String DIRECTORY_NAME = "gemini_responses";
+    private static final String ENTRY_SUFFIX = ".entry";
+    private static final int DEFAULT_MEMORY_ENTRIES = 100;
+    private static final int DEFAULT_DISK_ENTRIES = 500;
+    private static final long DEFAULT_TTL_MS = 24L * 60 * 60 * 1000;
+    private static final int SIGNATURE_SIZE = 64;
+    public static final double DEFAULT_SIMILARITY_THRESHOLD = 0.85;
+
+    private static final int[] SEEDS = new int[SIGNATURE_SIZE];
+
+    static {
+        Random random = new Random(0x1e9a1L);
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            SEEDS[i] = random.nextInt();
+        }
+    }
+
+    private static GeminiResponseCache instance;
+
+    public interface LookupCallback {
+        void onResult(String response);
+    }
+
+    public interface Metrics {
+        void onLookup(boolean hit, boolean nearDuplicate, long lookupMs, long savedMs);
+    }
+
+    private final File directory;
+    private final int maxMemoryEntries;
+    private final int maxDiskEntries;
+    private final long ttlMillis;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final LinkedHashMap<String, Entry> memory;
+    private Map<String, Signature> diskSignatures;
+
+    private boolean nearDuplicateEnabled;
+    private double similarityThreshold = DEFAULT_SIMILARITY_THRESHOLD;
+    private Metrics metrics;
+    private long hitCount;
+    private long nearHitCount;
+    private long missCount;
+    private long savedMillis;
+
+    public static synchronized GeminiResponseCache getInstance(Context context) {
+        if (instance == null) {
+            instance = new GeminiResponseCache(
+                    new File(context.getApplicationContext().getCacheDir(), DIRECTORY_NAME),
+                    DEFAULT_MEMORY_ENTRIES, DEFAULT_DISK_ENTRIES, DEFAULT_TTL_MS);
+        }
+        return instance;
+    }
+
+    GeminiResponseCache(File directory, int maxMemoryEntries, int maxDiskEntries, long ttlMillis) {
+        this.directory = directory;
+        this.maxMemoryEntries = maxMemoryEntries;
+        this.maxDiskEntries = maxDiskEntries;
+        this.ttlMillis = ttlMillis;
+        this.memory = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > GeminiResponseCache.this.maxMemoryEntries;
+            }
+        };
+        if (!directory.exists() && !directory.mkdirs()) {
+            Log.w(TAG, "Could not create " + directory);
+        }
+    }
+
+    public synchronized void setNearDuplicateEnabled(boolean enabled) {
+        this.nearDuplicateEnabled = enabled;
+    }
+
+    public synchronized void setSimilarityThreshold(double threshold) {
+        this.similarityThreshold = threshold;
+    }
+
+    public synchronized void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public void lookup(String scope, String prompt, LookupCallback callback) {
+        executor.execute(() -> callback.onResult(lookupNow(scope, prompt)));
+    }
+
+    public void put(String scope, String prompt, String response, long latencyMs) {
+        executor.execute(() -> putNow(scope, prompt, response, latencyMs));
+    }
+
+    public void clear() {
+        executor.execute(() -> {
+            synchronized (this) {
+                memory.clear();
+                diskSignatures = null;
+            }
+            File[] files = directory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+        });
+    }
+
+    public synchronized double getHitRate() {
+        long total = hitCount + missCount;
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    public synchronized long getSavedMillis() {
+        return savedMillis;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "GeminiResponseCache{memory=" + memory.size() + "/" + maxMemoryEntries
+                + ", hits=" + hitCount
+                + ", nearHits=" + nearHitCount
+                + ", misses=" + missCount
+                + ", savedMs=" + savedMillis + "}";
+    }
+
+    private String lookupNow(String scope, String prompt) {
+        long startedAt = SystemClock.elapsedRealtime();
+        String normalized = normalize(prompt);
+        String key = keyFor(scope, normalized);
+
+        Entry entry = readEntry(key);
+        boolean nearDuplicate = false;
+        if (entry == null && isNearDuplicateEnabled()) {
+            entry = findNearDuplicate(scope, signatureOf(normalized));
+            nearDuplicate = entry != null;
+        }
+
+        long lookupMs = SystemClock.elapsedRealtime() - startedAt;
+        long saved = entry != null ? Math.max(entry.latencyMs - lookupMs, 0) : 0;
+        Metrics hook;
+        synchronized (this) {
+            if (entry != null) {
+                hitCount++;
+                if (nearDuplicate) nearHitCount++;
+                savedMillis += saved;
+            } else {
+                missCount++;
+            }
+            hook = metrics;
+        }
+        if (hook != null) {
+            hook.onLookup(entry != null, nearDuplicate, lookupMs, saved);
+        }
+        return entry != null ? entry.response : null;
+    }
+
+    private void putNow(String scope, String prompt, String response, long latencyMs) {
+        String normalized = normalize(prompt);
+        String key = keyFor(scope, normalized);
+        Entry entry = new Entry(key, scopeKey(scope), response, System.currentTimeMillis(), latencyMs, signatureOf(normalized));
+        synchronized (this) {
+            memory.put(key, entry);
+            if (diskSignatures != null) {
+                diskSignatures.put(key, entry.signature);
+            }
+        }
+        writeEntry(entry);
+        trimDisk();
+    }
+
+    private Entry readEntry(String key) {
+        synchronized (this) {
+            Entry cached = memory.get(key);
+            if (cached != null) {
+                if (!cached.isExpired(ttlMillis)) {
+                    return cached;
+                }
+                memory.remove(key);
+            }
+        }
+
+        File file = new File(directory, key + ENTRY_SUFFIX);
+        if (!file.exists()) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream input = new FileInputStream(file)) {
+            properties.load(input);
+        } catch (IOException e) {
+            file.delete();
+            return null;
+        }
+
+        Entry entry = new Entry(
+                key,
+                properties.getProperty("scope"),
+                properties.getProperty("response"),
+                parseLong(properties.getProperty("createdAt")),
+                parseLong(properties.getProperty("latencyMs")),
+                parseSignature(properties.getProperty("signature")));
+        if (entry.response == null || entry.isExpired(ttlMillis)) {
+            file.delete();
+            return null;
+        }
+        file.setLastModified(System.currentTimeMillis());
+        synchronized (this) {
+            memory.put(key, entry);
+        }
+        return entry;
+    }
+
+    private void writeEntry(Entry entry) {
+        Properties properties = new Properties();
+        properties.setProperty("scope", entry.signature.scope);
+        properties.setProperty("response", entry.response);
+        properties.setProperty("createdAt", String.valueOf(entry.createdAt));
+        properties.setProperty("latencyMs", String.valueOf(entry.latencyMs));
+        properties.setProperty("signature", formatSignature(entry.signature.values));
+
+        try (OutputStream output = new FileOutputStream(new File(directory, entry.key + ENTRY_SUFFIX))) {
+            properties.store(output, null);
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to write " + entry.key + ": " + e.getMessage());
+        }
+    }
+
+    private Entry findNearDuplicate(String scope, int[] signature) {
+        String scopeKey = scopeKey(scope);
+        String bestKey = null;
+        double bestSimilarity;
+        synchronized (this) {
+            if (diskSignatures == null) {
+                diskSignatures = loadDiskSignatures();
+            }
+            bestSimilarity = similarityThreshold;
+            for (Map.Entry<String, Signature> candidate : diskSignatures.entrySet()) {
+                if (!scopeKey.equals(candidate.getValue().scope)) {
+                    continue;
+                }
+                double similarity = similarity(signature, candidate.getValue().values);
+                if (similarity >= bestSimilarity) {
+                    bestSimilarity = similarity;
+                    bestKey = candidate.getKey();
+                }
+            }
+        }
+        return bestKey != null ? readEntry(bestKey) : null;
+    }
+
+    private Map<String, Signature> loadDiskSignatures() {
+        Map<String, Signature> signatures = new HashMap<>();
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(ENTRY_SUFFIX));
+        if (files == null) {
+            return signatures;
+        }
+        for (File file : files) {
+            Properties properties = new Properties();
+            try (InputStream input = new FileInputStream(file)) {
+                properties.load(input);
+            } catch (IOException e) {
+                continue;
+            }
+            String name = file.getName();
+            signatures.put(name.substring(0, name.length() - ENTRY_SUFFIX.length()),
+                    new Signature(properties.getProperty("scope"), parseSignature(properties.getProperty("signature"))));
+        }
+        return signatures;
+    }
+
+    private void trimDisk() {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(ENTRY_SUFFIX));
+        if (files == null || files.length <= maxDiskEntries) {
+            return;
+        }
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (int i = 0; i < files.length - maxDiskEntries; i++) {
+            String name = files[i].getName();
+            String key = name.substring(0, name.length() - ENTRY_SUFFIX.length());
+            files[i].delete();
+            synchronized (this) {
+                memory.remove(key);
+                if (diskSignatures != null) {
+                    diskSignatures.remove(key);
+                }
+            }
+        }
+    }
+
+    private synchronized boolean isNearDuplicateEnabled() {
+        return nearDuplicateEnabled;
+    }
+
+    static String normalize(String prompt) {
+        return prompt.toLowerCase(Locale.ROOT)
+                .replaceAll("[^\\p{L}\\p{N}\\s]", " ")
+                .replaceAll("\\s+", " ")
+                .trim();
+    }
+
+    private static String keyFor(String scope, String normalized) {
+        return ImageDiskCache.keyFor(scopeKey(scope) + "\n" + normalized);
+    }
+
+    private static String scopeKey(String scope) {
+        return scope == null || scope.isEmpty() ? "" : ImageDiskCache.keyFor(scope);
+    }
+
+    static int[] signatureOf(String normalized) {
+        Set<String> shingles = new LinkedHashSet<>();
+        String[] words = normalized.split(" ");
+        for (int i = 0; i < words.length; i++) {
+            shingles.add(words[i]);
+            if (i + 1 < words.length) {
+                shingles.add(words[i] + " " + words[i + 1]);
+            }
+        }
+
+        int[] signature = new int[SIGNATURE_SIZE];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (String shingle : shingles) {
+            int hash = shingle.hashCode();
+            for (int i = 0; i < SIGNATURE_SIZE; i++) {
+                int value = mix(hash ^ SEEDS[i]);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    static double similarity(int[] a, int[] b) {
+        if (a == null || b == null || a.length != b.length) {
+            return 0;
+        }
+        int matches = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) matches++;
+        }
+        return (double) matches / a.length;
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static String formatSignature(int[] signature) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < signature.length; i++) {
+            if (i > 0) builder.append(',');
+            builder.append(signature[i]);
+        }
+        return builder.toString();
+    }
+
+    private static int[] parseSignature(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        String[] parts = value.split(",");
+        int[] signature = new int[parts.length];
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                signature[i] = Integer.parseInt(parts[i]);
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return signature;
+    }
+
+    private static long parseLong(String value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static class Signature {
+        final String scope;
+        final int[] values;
+
+        Signature(String scope, int[] values) {
+            this.scope = scope != null ? scope : "";
+            this.values = values;
+        }
+    }
+
+    private static class Entry {
+        final String key;
+        final String response;
+        final long createdAt;
+        final long latencyMs;
+        final Signature signature;
+
+        Entry(String key, String scope, String response, long createdAt, long latencyMs, int[] signature) {
+            this.key = key;
+            this.response = response;
+            this.createdAt = createdAt;
+            this.latencyMs = latencyMs;
+            this.signature = new Signature(scope, signature);
+        }
+
+        boolean isExpired(long ttlMillis) {
+            return System.currentTimeMillis() - createdAt >= ttlMillis;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.lawway;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Response;
+
+public class HttpClientProvider {
+    private static final String TAG = "HttpClientProvider";
+    private static final int MAX_IDLE_CONNECTIONS = 8;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+    private static final int MAX_REQUESTS = 32;
+    private static final int MAX_REQUESTS_PER_HOST = 6;
+
+    private static OkHttpClient client;
+
+    public static synchronized OkHttpClient getClient() {
+        if (client == null) {
+            client = build();
+        }
+        return client;
+    }
+
+    private static OkHttpClient build() {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(MAX_REQUESTS);
+        dispatcher.setMaxRequestsPerHost(MAX_REQUESTS_PER_HOST);
+
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+                .dispatcher(dispatcher)
+                .connectTimeout(15, TimeUnit.SECONDS)
+                .readTimeout(30, TimeUnit.SECONDS)
+                .writeTimeout(30, TimeUnit.SECONDS);
+        if (BuildConfig.DEBUG) {
+            builder.eventListenerFactory(call -> new TimingListener());
+        }
+        return builder.build();
+    }
+
+    private static class TimingListener extends EventListener {
+        private long callStart;
+        private long dnsStart;
+        private long connectStart;
+        private long secureConnectStart;
+        private long dnsMs = -1;
+        private long connectMs = -1;
+        private long tlsMs = -1;
+        private long ttfbMs = -1;
+
+        @Override
+        public void callStart(Call call) {
+            callStart = SystemClock.elapsedRealtime();
+        }
+
+        @Override
+        public void dnsStart(Call call, String domainName) {
+            dnsStart = SystemClock.elapsedRealtime();
+        }
+
+        @Override
+        public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+            dnsMs = SystemClock.elapsedRealtime() - dnsStart;
+        }
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+            connectStart = SystemClock.elapsedRealtime();
+        }
+
+        @Override
+        public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+            connectMs = SystemClock.elapsedRealtime() - connectStart;
+        }
+
+        @Override
+        public void secureConnectStart(Call call) {
+            secureConnectStart = SystemClock.elapsedRealtime();
+        }
+
+        @Override
+        public void secureConnectEnd(Call call, Handshake handshake) {
+            tlsMs = SystemClock.elapsedRealtime() - secureConnectStart;
+        }
+
+        @Override
+        public void responseHeadersEnd(Call call, Response response) {
+            ttfbMs = SystemClock.elapsedRealtime() - callStart;
+        }
+
+        @Override
+        public void callEnd(Call call) {
+            log(call, "done");
+        }
+
+        @Override
+        public void callFailed(Call call, IOException ioe) {
+            log(call, "failed: " + ioe.getMessage());
+        }
+
+        private void log(Call call, String outcome) {
+            Log.d(TAG, call.request().url().host() + call.request().url().encodedPath()
+                    + " " + outcome
+                    + " dns=" + dnsMs + "ms"
+                    + " connect=" + connectMs + "ms"
+                    + " tls=" + tlsMs + "ms"
+                    + " ttfb=" + ttfbMs + "ms"
+                    + " total=" + (SystemClock.elapsedRealtime() - callStart) + "ms");
+        }
+    }
+}
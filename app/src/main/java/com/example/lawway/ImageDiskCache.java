@@ -0,0 +1,221 @@
+package com.example.lawway;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Properties;
+
+public class ImageDiskCache {
+    private static final String TAG = "ImageDiskCache";
+    private static final String DIRECTORY_NAME = "profile_images";
+    private static final String DATA_SUFFIX = ".img";
+    private static final String META_SUFFIX = ".meta";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final long DEFAULT_MAX_BYTES = 20L * 1024 * 1024;
+    public static final long DEFAULT_MAX_AGE_MS = 24L * 60 * 60 * 1000;
+
+    private static ImageDiskCache instance;
+
+    private final File directory;
+    private final long maxBytes;
+
+    public static synchronized ImageDiskCache getInstance(Context context) {
+        if (instance == null) {
+            instance = new ImageDiskCache(new File(context.getApplicationContext().getCacheDir(), DIRECTORY_NAME), DEFAULT_MAX_BYTES);
+        }
+        return instance;
+    }
+
+    ImageDiskCache(File directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        if (!directory.exists() && !directory.mkdirs()) {
+            Log.w(TAG, "Could not create " + directory);
+        }
+        File[] leftovers = directory.listFiles((dir, name) -> name.endsWith(TEMP_SUFFIX));
+        if (leftovers != null) {
+            for (File file : leftovers) {
+                file.delete();
+            }
+        }
+    }
+
+    public synchronized Entry get(String url) {
+        String key = keyFor(url);
+        File data = new File(directory, key + DATA_SUFFIX);
+        File meta = new File(directory, key + META_SUFFIX);
+        if (!data.exists() || !meta.exists()) {
+            return null;
+        }
+
+        Properties properties = new Properties();
+        try (InputStream input = new FileInputStream(meta)) {
+            properties.load(input);
+        } catch (IOException e) {
+            remove(key);
+            return null;
+        }
+
+        data.setLastModified(System.currentTimeMillis());
+        return new Entry(
+                data,
+                properties.getProperty("etag"),
+                properties.getProperty("lastModified"),
+                parseLong(properties.getProperty("expiresAt")));
+    }
+
+    public Entry put(String url, InputStream body, String etag, String lastModified, long maxAgeMs) throws IOException {
+        String key = keyFor(url);
+        File temp = File.createTempFile(key, TEMP_SUFFIX, directory);
+
+        try (OutputStream output = new FileOutputStream(temp)) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new IOException("Interrupted");
+                }
+                output.write(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            temp.delete();
+            throw e;
+        }
+
+        synchronized (this) {
+            File data = new File(directory, key + DATA_SUFFIX);
+            if (!temp.renameTo(data)) {
+                temp.delete();
+                throw new IOException("Could not commit " + data);
+            }
+
+            long expiresAt = System.currentTimeMillis() + maxAgeMs;
+            writeMeta(key, etag, lastModified, expiresAt);
+            trimToSize(key);
+            return new Entry(data, etag, lastModified, expiresAt);
+        }
+    }
+
+    public synchronized Entry refresh(String url, Entry entry, long maxAgeMs) {
+        long expiresAt = System.currentTimeMillis() + maxAgeMs;
+        writeMeta(keyFor(url), entry.etag, entry.lastModified, expiresAt);
+        return new Entry(entry.file, entry.etag, entry.lastModified, expiresAt);
+    }
+
+    private void writeMeta(String key, String etag, String lastModified, long expiresAt) {
+        Properties properties = new Properties();
+        if (etag != null) properties.setProperty("etag", etag);
+        if (lastModified != null) properties.setProperty("lastModified", lastModified);
+        properties.setProperty("expiresAt", String.valueOf(expiresAt));
+
+        try (OutputStream output = new FileOutputStream(new File(directory, key + META_SUFFIX))) {
+            properties.store(output, null);
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to write metadata for " + key + ": " + e.getMessage());
+        }
+    }
+
+    private void trimToSize(String keepKey) {
+        File keep = new File(directory, keepKey + DATA_SUFFIX);
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(DATA_SUFFIX));
+        if (files == null) {
+            return;
+        }
+
+        long total = 0;
+        for (File file : files) {
+            total += file.length();
+        }
+        if (total <= maxBytes) {
+            return;
+        }
+
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (File file : files) {
+            if (total <= maxBytes) {
+                break;
+            }
+            if (file.equals(keep)) {
+                continue;
+            }
+            total -= file.length();
+            String name = file.getName();
+            remove(name.substring(0, name.length() - DATA_SUFFIX.length()));
+        }
+    }
+
+    private void remove(String key) {
+        new File(directory, key + DATA_SUFFIX).delete();
+        new File(directory, key + META_SUFFIX).delete();
+    }
+
+    static String keyFor(String url) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] hash = digest.digest(url.getBytes(StandardCharsets.UTF_8));
+            StringBuilder builder = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                builder.append(String.format("%02x", b));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return String.valueOf(url.hashCode());
+        }
+    }
+
+    static long parseMaxAge(String cacheControl) {
+        if (cacheControl == null) {
+            return DEFAULT_MAX_AGE_MS;
+        }
+        for (String directive : cacheControl.split(",")) {
+            String trimmed = directive.trim().toLowerCase();
+            if (trimmed.equals("no-cache") || trimmed.equals("no-store")) {
+                return 0;
+            }
+            if (trimmed.startsWith("max-age=")) {
+                long seconds = parseLong(trimmed.substring("max-age=".length()));
+                return Math.max(seconds, 0) * 1000;
+            }
+        }
+        return DEFAULT_MAX_AGE_MS;
+    }
+
+    private static long parseLong(String value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    public static class Entry {
+        final File file;
+        final String etag;
+        final String lastModified;
+        final long expiresAt;
+
+        Entry(File file, String etag, String lastModified, long expiresAt) {
+            this.file = file;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.expiresAt = expiresAt;
+        }
+
+        public boolean isFresh() {
+            return System.currentTimeMillis() < expiresAt;
+        }
+    }
+}
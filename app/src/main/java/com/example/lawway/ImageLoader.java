@@ -0,0 +1,281 @@
+package com.example.lawway;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.LruCache;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+public class ImageLoader {
+    private static final String TAG = "ImageLoader";
+    private static final int THREAD_COUNT = 3;
+    private static final int DEFAULT_TARGET_SIZE = 256;
+    private static final int TIMEOUT_MS = 15000;
+
+    private static final OkHttpClient client = HttpClientProvider.getClient().newBuilder()
+            .connectTimeout(TIMEOUT_MS, TimeUnit.MILLISECONDS)
+            .readTimeout(TIMEOUT_MS, TimeUnit.MILLISECONDS)
+            .build();
+
+    private static ImageLoader instance;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final LruCache<String, Bitmap> memoryCache;
+    private final Map<String, Job> jobs = new HashMap<>();
+    private final Map<ImageView, Job> targets = new WeakHashMap<>();
+    private final Map<LifecycleOwner, Set<ImageView>> ownerTargets = new WeakHashMap<>();
+
+    public static synchronized ImageLoader getInstance() {
+        if (instance == null) {
+            instance = new ImageLoader();
+        }
+        return instance;
+    }
+
+    private ImageLoader() {
+        int cacheBytes = (int) Math.min(Runtime.getRuntime().maxMemory() / 8, Integer.MAX_VALUE);
+        memoryCache = new LruCache<String, Bitmap>(cacheBytes) {
+            @Override
+            protected int sizeOf(String key, Bitmap value) {
+                return value.getAllocationByteCount();
+            }
+        };
+    }
+
+    public void load(LifecycleOwner owner, String url, ImageView target) {
+        cancel(target);
+        if (url == null || url.isEmpty()) {
+            return;
+        }
+
+        int width = targetWidth(target);
+        int height = targetHeight(target);
+        String key = url + "#" + width + "x" + height;
+
+        Bitmap cached = memoryCache.get(key);
+        if (cached != null) {
+            target.setImageBitmap(cached);
+            return;
+        }
+
+        Job job = jobs.get(key);
+        if (job == null) {
+            job = new Job(ImageDiskCache.getInstance(target.getContext()), key, url, width, height);
+            jobs.put(key, job);
+            job.future = executor.submit(job);
+        }
+        job.targets.add(target);
+        targets.put(target, job);
+
+        if (owner != null) {
+            watch(owner, target);
+        }
+    }
+
+    public void cancel(ImageView target) {
+        Job job = targets.remove(target);
+        if (job == null) {
+            return;
+        }
+        job.targets.remove(target);
+        if (job.targets.isEmpty()) {
+            job.future.cancel(true);
+            jobs.remove(job.key);
+        }
+    }
+
+    public void clearMemory() {
+        memoryCache.evictAll();
+    }
+
+    private void watch(LifecycleOwner owner, ImageView target) {
+        Set<ImageView> views = ownerTargets.get(owner);
+        if (views == null) {
+            if (owner.getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED) {
+                cancel(target);
+                return;
+            }
+            views = new HashSet<>();
+            ownerTargets.put(owner, views);
+            owner.getLifecycle().addObserver((LifecycleEventObserver) (source, event) -> {
+                if (event == Lifecycle.Event.ON_DESTROY) {
+                    Set<ImageView> owned = ownerTargets.remove(source);
+                    if (owned != null) {
+                        for (ImageView view : owned) {
+                            cancel(view);
+                        }
+                    }
+                }
+            });
+        }
+        views.add(target);
+    }
+
+    private void deliver(Job job, Bitmap bitmap) {
+        if (jobs.get(job.key) == job) {
+            jobs.remove(job.key);
+        }
+        if (bitmap == null) {
+            for (ImageView target : job.targets) {
+                if (targets.get(target) == job) {
+                    targets.remove(target);
+                }
+            }
+            return;
+        }
+
+        memoryCache.put(job.key, bitmap);
+        for (ImageView target : job.targets) {
+            if (targets.get(target) == job) {
+                targets.remove(target);
+                target.setImageBitmap(bitmap);
+            }
+        }
+    }
+
+    private int targetWidth(ImageView view) {
+        ViewGroup.LayoutParams params = view.getLayoutParams();
+        if (params != null && params.width > 0) return params.width;
+        if (view.getWidth() > 0) return view.getWidth();
+        return DEFAULT_TARGET_SIZE;
+    }
+
+    private int targetHeight(ImageView view) {
+        ViewGroup.LayoutParams params = view.getLayoutParams();
+        if (params != null && params.height > 0) return params.height;
+        if (view.getHeight() > 0) return view.getHeight();
+        return DEFAULT_TARGET_SIZE;
+    }
+
+    static Bitmap decodeSampled(File file, int reqWidth, int reqHeight) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(file.getPath(), options);
+
+        options.inSampleSize = calculateInSampleSize(options, reqWidth, reqHeight);
+        options.inJustDecodeBounds = false;
+        return BitmapFactory.decodeFile(file.getPath(), options);
+    }
+
+    static int calculateInSampleSize(BitmapFactory.Options options, int reqWidth, int reqHeight) {
+        int inSampleSize = 1;
+        int halfWidth = options.outWidth / 2;
+        int halfHeight = options.outHeight / 2;
+        while (halfWidth / inSampleSize >= reqWidth && halfHeight / inSampleSize >= reqHeight) {
+            inSampleSize *= 2;
+        }
+        return inSampleSize;
+    }
+
+    private static File fetch(ImageDiskCache diskCache, String imageUrl) throws IOException {
+        ImageDiskCache.Entry entry = diskCache.get(imageUrl);
+        if (entry != null && entry.isFresh()) {
+            return entry.file;
+        }
+
+        Request.Builder builder = new Request.Builder().url(imageUrl);
+        if (entry != null) {
+            if (entry.etag != null) {
+                builder.header("If-None-Match", entry.etag);
+            }
+            if (entry.lastModified != null) {
+                builder.header("If-Modified-Since", entry.lastModified);
+            }
+        }
+
+        try (Response response = client.newCall(builder.build()).execute()) {
+            int code = response.code();
+            long maxAge = ImageDiskCache.parseMaxAge(response.header("Cache-Control"));
+            if (code == HttpURLConnection.HTTP_NOT_MODIFIED && entry != null) {
+                return diskCache.refresh(imageUrl, entry, maxAge).file;
+            }
+            ResponseBody body = response.body();
+            if (code != HttpURLConnection.HTTP_OK || body == null) {
+                throw new IOException("HTTP " + code);
+            }
+            try (InputStream input = body.byteStream()) {
+                return diskCache.put(
+                        imageUrl,
+                        input,
+                        response.header("ETag"),
+                        response.header("Last-Modified"),
+                        maxAge).file;
+            }
+        } catch (IOException e) {
+            if (entry != null) {
+                return entry.file;
+            }
+            throw e;
+        }
+    }
+
+    private class Job implements Runnable {
+        final ImageDiskCache diskCache;
+        final String key;
+        final String url;
+        final int width;
+        final int height;
+        final List<ImageView> targets = new ArrayList<>();
+        Future<?> future;
+
+        Job(ImageDiskCache diskCache, String key, String url, int width, int height) {
+            this.diskCache = diskCache;
+            this.key = key;
+            this.url = url;
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public void run() {
+            Bitmap bitmap = null;
+            try {
+                File file = fetch(diskCache, url);
+                if (!Thread.currentThread().isInterrupted()) {
+                    bitmap = decodeSampled(file, width, height);
+                }
+                // Another loader thread may have trimmed the file between fetch and decode.
+                if (bitmap == null && !file.exists() && !Thread.currentThread().isInterrupted()) {
+                    bitmap = decodeSampled(fetch(diskCache, url), width, height);
+                }
+            } catch (IOException e) {
+                Log.w(TAG, "Failed to load " + url + ": " + e.getMessage());
+            }
+
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            Bitmap result = bitmap;
+            mainHandler.post(() -> deliver(this, result));
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.lawway;
+
+import android.app.Application;
+
+public class LawwayApplication extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        FirestoreProvider.getInstance();
+        GeminiHelper.setResponseCache(GeminiResponseCache.getInstance(this));
+    }
+}
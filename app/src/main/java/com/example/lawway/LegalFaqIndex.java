@@ -0,0 +1,405 @@
+package com.example.lawway;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.DataOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/** BM25 index over the bundled FAQ corpus, packed into one file and read through a memory map. */
+public class LegalFaqIndex {
+    private static final int MAGIC = 0x4C464149;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 40;
+    private static final int DOC_ENTRY_BYTES = 12;
+    private static final int TERM_ENTRY_BYTES = 16;
+    private static final int POSTING_BYTES = 8;
+    private static final char FIELD_SEPARATOR = '\u001f';
+
+    // Question words are counted twice so a passage whose question matches outranks
+    // one that only mentions the terms in passing.
+    private static final int QUESTION_WEIGHT = 2;
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+            "a", "an", "and", "are", "as", "at", "be", "by", "can", "do", "does", "for", "from",
+            "how", "i", "if", "in", "is", "it", "its", "me", "my", "of", "on", "or", "should",
+            "so", "that", "the", "their", "them", "there", "they", "this", "to", "was", "what",
+            "when", "where", "which", "who", "why", "will", "with", "you", "your"));
+
+    private final ByteBuffer buffer;
+    private final long corpusStamp;
+    private final int docCount;
+    private final int termCount;
+    private final float avgDocLength;
+    private final int docTableStart;
+    private final int termTableStart;
+    private final int postingsStart;
+    private final int textStart;
+
+    public static class Passage {
+        private final int docId;
+        private final String question;
+        private final String answer;
+        private final float score;
+        private final float coverage;
+
+        Passage(int docId, String question, String answer, float score, float coverage) {
+            this.docId = docId;
+            this.question = question;
+            this.answer = answer;
+            this.score = score;
+            this.coverage = coverage;
+        }
+
+        public int getDocId() {
+            return docId;
+        }
+
+        public String getQuestion() {
+            return question;
+        }
+
+        public String getAnswer() {
+            return answer;
+        }
+
+        public float getScore() {
+            return score;
+        }
+
+        /** Share of the query's IDF weight that this passage matched, from 0 to 1. */
+        public float getCoverage() {
+            return coverage;
+        }
+    }
+
+    private LegalFaqIndex(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Not a legal FAQ index");
+        }
+        corpusStamp = buffer.getLong(8);
+        docCount = buffer.getInt(16);
+        termCount = buffer.getInt(20);
+        avgDocLength = buffer.getFloat(24);
+        docTableStart = buffer.getInt(28);
+        termTableStart = buffer.getInt(32);
+        textStart = buffer.getInt(36);
+        postingsStart = termTableStart + termCount * TERM_ENTRY_BYTES;
+    }
+
+    public static LegalFaqIndex open(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new LegalFaqIndex(mapped);
+        }
+    }
+
+    public static long stampOf(byte[] corpus) {
+        CRC32 crc = new CRC32();
+        crc.update(corpus);
+        return (FORMAT_VERSION * 31L) << 32 ^ crc.getValue();
+    }
+
+    public long getCorpusStamp() {
+        return corpusStamp;
+    }
+
+    public int getPassageCount() {
+        return docCount;
+    }
+
+    public List<Passage> search(String query, int limit) {
+        Map<Long, Integer> queryTerms = new LinkedHashMap<>();
+        for (String token : tokenize(query)) {
+            queryTerms.put(hash(token), 1);
+        }
+        if (queryTerms.isEmpty() || docCount == 0 || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        float[] scores = new float[docCount];
+        float[] matchedIdf = new float[docCount];
+        float totalIdf = 0;
+        // Terms missing from the corpus still count towards the query weight so that
+        // a question about something the corpus never mentions cannot look covered.
+        float unseenIdf = idf(0);
+
+        for (long term : queryTerms.keySet()) {
+            int entry = findTerm(term);
+            if (entry < 0) {
+                totalIdf += unseenIdf;
+                continue;
+            }
+            int df = buffer.getInt(entry + 8);
+            int postings = postingsStart + buffer.getInt(entry + 12);
+            float idf = idf(df);
+            totalIdf += idf;
+            for (int i = 0; i < df; i++) {
+                int offset = postings + i * POSTING_BYTES;
+                int docId = buffer.getInt(offset);
+                int tf = buffer.getInt(offset + 4);
+                int length = buffer.getInt(docTableStart + docId * DOC_ENTRY_BYTES);
+                float norm = K1 * (1 - B + B * length / avgDocLength);
+                scores[docId] += idf * tf * (K1 + 1) / (tf + norm);
+                matchedIdf[docId] += idf;
+            }
+        }
+
+        PriorityQueue<Integer> top = new PriorityQueue<>(limit + 1, (a, b) -> Float.compare(scores[a], scores[b]));
+        for (int docId = 0; docId < docCount; docId++) {
+            if (scores[docId] <= 0) {
+                continue;
+            }
+            if (top.size() < limit) {
+                top.add(docId);
+            } else if (scores[docId] > scores[top.peek()]) {
+                top.poll();
+                top.add(docId);
+            }
+        }
+
+        List<Passage> passages = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            int docId = top.poll();
+            String text = readText(docId);
+            int split = text.indexOf(FIELD_SEPARATOR);
+            passages.add(new Passage(
+                    docId,
+                    text.substring(0, split),
+                    text.substring(split + 1),
+                    scores[docId],
+                    totalIdf > 0 ? matchedIdf[docId] / totalIdf : 0));
+        }
+        Collections.reverse(passages);
+        return passages;
+    }
+
+    private float idf(int df) {
+        return (float) Math.log(1 + (docCount - df + 0.5) / (df + 0.5));
+    }
+
+    private int findTerm(long term) {
+        int low = 0;
+        int high = termCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int entry = termTableStart + mid * TERM_ENTRY_BYTES;
+            long value = buffer.getLong(entry);
+            if (value < term) {
+                low = mid + 1;
+            } else if (value > term) {
+                high = mid - 1;
+            } else {
+                return entry;
+            }
+        }
+        return -1;
+    }
+
+    private String readText(int docId) {
+        int entry = docTableStart + docId * DOC_ENTRY_BYTES;
+        int start = buffer.getInt(entry + 4);
+        int length = buffer.getInt(entry + 8);
+        byte[] bytes = new byte[length];
+        ByteBuffer view = buffer.duplicate();
+        view.position(textStart + start);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Packs a corpus of question&lt;TAB&gt;answer lines into {@code out}. Blank lines and
+     * lines starting with '#' are skipped. The file is written next to {@code out}
+     * and renamed into place so a half-written index is never mapped.
+     */
+    public static void pack(byte[] corpus, File out) throws IOException {
+        List<String> questions = new ArrayList<>();
+        List<String> answers = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new ByteArrayInputStream(corpus), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                int tab = line.indexOf('\t');
+                if (tab <= 0 || tab == line.length() - 1) {
+                    continue;
+                }
+                questions.add(line.substring(0, tab).trim());
+                answers.add(line.substring(tab + 1).trim());
+            }
+        }
+
+        int docs = questions.size();
+        int[] lengths = new int[docs];
+        Map<Long, PostingList> postings = new HashMap<>();
+        long totalLength = 0;
+        for (int docId = 0; docId < docs; docId++) {
+            Map<Long, Integer> counts = new HashMap<>();
+            for (String token : tokenize(questions.get(docId))) {
+                counts.merge(hash(token), QUESTION_WEIGHT, Integer::sum);
+            }
+            for (String token : tokenize(answers.get(docId))) {
+                counts.merge(hash(token), 1, Integer::sum);
+            }
+            int length = 0;
+            for (Map.Entry<Long, Integer> count : counts.entrySet()) {
+                length += count.getValue();
+                PostingList list = postings.get(count.getKey());
+                if (list == null) {
+                    list = new PostingList();
+                    postings.put(count.getKey(), list);
+                }
+                list.add(docId, count.getValue());
+            }
+            lengths[docId] = length;
+            totalLength += length;
+        }
+
+        long[] terms = new long[postings.size()];
+        int t = 0;
+        for (long term : postings.keySet()) {
+            terms[t++] = term;
+        }
+        Arrays.sort(terms);
+
+        byte[][] texts = new byte[docs][];
+        for (int docId = 0; docId < docs; docId++) {
+            texts[docId] = (questions.get(docId) + FIELD_SEPARATOR + answers.get(docId)).getBytes(StandardCharsets.UTF_8);
+        }
+
+        int docTable = HEADER_BYTES;
+        int termTable = docTable + docs * DOC_ENTRY_BYTES;
+        int postingBytes = 0;
+        for (PostingList list : postings.values()) {
+            postingBytes += list.size * POSTING_BYTES;
+        }
+        int text = termTable + terms.length * TERM_ENTRY_BYTES + postingBytes;
+
+        File tmp = new File(out.getPath() + ".tmp");
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            output.writeInt(MAGIC);
+            output.writeInt(FORMAT_VERSION);
+            output.writeLong(stampOf(corpus));
+            output.writeInt(docs);
+            output.writeInt(terms.length);
+            output.writeFloat(docs == 0 ? 0 : (float) totalLength / docs);
+            output.writeInt(docTable);
+            output.writeInt(termTable);
+            output.writeInt(text);
+
+            int textOffset = 0;
+            for (int docId = 0; docId < docs; docId++) {
+                output.writeInt(lengths[docId]);
+                output.writeInt(textOffset);
+                output.writeInt(texts[docId].length);
+                textOffset += texts[docId].length;
+            }
+
+            int postingOffset = 0;
+            for (long term : terms) {
+                PostingList list = postings.get(term);
+                output.writeLong(term);
+                output.writeInt(list.size);
+                output.writeInt(postingOffset);
+                postingOffset += list.size * POSTING_BYTES;
+            }
+
+            for (long term : terms) {
+                PostingList list = postings.get(term);
+                for (int i = 0; i < list.size; i++) {
+                    output.writeInt(list.docIds[i]);
+                    output.writeInt(list.tfs[i]);
+                }
+            }
+
+            for (byte[] bytes : texts) {
+                output.write(bytes);
+            }
+        }
+        if (!tmp.renameTo(out)) {
+            tmp.delete();
+            throw new IOException("Could not move index into " + out);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? Character.toLowerCase(text.charAt(i)) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                current.append(c);
+                continue;
+            }
+            if (current.length() > 1) {
+                String token = current.toString();
+                if (!STOP_WORDS.contains(token)) {
+                    tokens.add(stem(token));
+                }
+            }
+            current.setLength(0);
+        }
+        return tokens;
+    }
+
+    private static String stem(String token) {
+        if (token.length() > 4 && token.endsWith("ies")) {
+            return token.substring(0, token.length() - 3) + "y";
+        }
+        if (token.length() > 3 && token.endsWith("s") && !token.endsWith("ss")) {
+            return token.substring(0, token.length() - 1);
+        }
+        return token;
+    }
+
+    private static long hash(String token) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < token.length(); i++) {
+            hash ^= token.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static class PostingList {
+        int[] docIds = new int[4];
+        int[] tfs = new int[4];
+        int size;
+
+        void add(int docId, int tf) {
+            if (size == docIds.length) {
+                docIds = Arrays.copyOf(docIds, size * 2);
+                tfs = Arrays.copyOf(tfs, size * 2);
+            }
+            docIds[size] = docId;
+            tfs[size] = tf;
+            size++;
+        }
+    }
+}
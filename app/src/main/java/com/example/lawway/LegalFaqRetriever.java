@@ -0,0 +1,161 @@
+package com.example.lawway;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class LegalFaqRetriever {
+    private static final String TAG = "LegalFaqRetriever";
+    private static final String CORPUS_ASSET = "legal_faq.tsv";
+    private static final String INDEX_FILE = "legal_faq.idx";
+
+    public static final int DEFAULT_PASSAGES = 3;
+    private static final float LOCAL_ANSWER_COVERAGE = 0.8f;
+    private static final float LOCAL_ANSWER_MARGIN = 1.5f;
+    private static final float REFERENCE_MIN_COVERAGE = 0.3f;
+
+    private static LegalFaqRetriever instance;
+
+    private final Context context;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private LegalFaqIndex index;
+    private boolean openAttempted;
+
+    public interface SearchCallback {
+        void onResult(Result result);
+    }
+
+    public static class Result {
+        private final List<LegalFaqIndex.Passage> passages;
+        private final long searchMicros;
+
+        Result(List<LegalFaqIndex.Passage> passages, long searchMicros) {
+            this.passages = passages;
+            this.searchMicros = searchMicros;
+        }
+
+        public List<LegalFaqIndex.Passage> getPassages() {
+            return passages;
+        }
+
+        public long getSearchMicros() {
+            return searchMicros;
+        }
+
+        /**
+         * Returns the passage to show without calling Gemini, or null. The best match
+         * must cover most of the question and clearly beat the runner-up, so two close
+         * passages (e.g. general vs healthcare power of attorney) still go to the model.
+         */
+        public LegalFaqIndex.Passage getLocalAnswer() {
+            if (passages.isEmpty()) {
+                return null;
+            }
+            LegalFaqIndex.Passage best = passages.get(0);
+            if (best.getCoverage() < LOCAL_ANSWER_COVERAGE) {
+                return null;
+            }
+            if (passages.size() > 1 && best.getScore() < passages.get(1).getScore() * LOCAL_ANSWER_MARGIN) {
+                return null;
+            }
+            return best;
+        }
+
+        public String toReferenceMaterial() {
+            StringBuilder builder = new StringBuilder();
+            for (LegalFaqIndex.Passage passage : passages) {
+                if (passage.getCoverage() < REFERENCE_MIN_COVERAGE) {
+                    continue;
+                }
+                if (builder.length() > 0) {
+                    builder.append("\n\n");
+                }
+                builder.append("Q: ").append(passage.getQuestion()).append('\n')
+                        .append("A: ").append(passage.getAnswer());
+            }
+            return builder.length() > 0 ? builder.toString() : null;
+        }
+    }
+
+    public static synchronized LegalFaqRetriever getInstance(Context context) {
+        if (instance == null) {
+            instance = new LegalFaqRetriever(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private LegalFaqRetriever(Context context) {
+        this.context = context;
+    }
+
+    /** Packs and maps the index ahead of the first question. */
+    public void warmUp() {
+        executor.execute(this::ensureIndex);
+    }
+
+    public void search(String query, int limit, SearchCallback callback) {
+        executor.execute(() -> {
+            LegalFaqIndex loaded = ensureIndex();
+            long startedAt = System.nanoTime();
+            List<LegalFaqIndex.Passage> passages = loaded != null
+                    ? loaded.search(query, limit)
+                    : Collections.<LegalFaqIndex.Passage>emptyList();
+            long searchMicros = (System.nanoTime() - startedAt) / 1000;
+            Result result = new Result(passages, searchMicros);
+            mainHandler.post(() -> callback.onResult(result));
+        });
+    }
+
+    private LegalFaqIndex ensureIndex() {
+        if (openAttempted) {
+            return index;
+        }
+        openAttempted = true;
+        try {
+            byte[] corpus = readCorpus();
+            File file = new File(context.getFilesDir(), INDEX_FILE);
+            long stamp = LegalFaqIndex.stampOf(corpus);
+            if (file.exists()) {
+                try {
+                    LegalFaqIndex existing = LegalFaqIndex.open(file);
+                    if (existing.getCorpusStamp() == stamp) {
+                        index = existing;
+                        return index;
+                    }
+                } catch (IOException e) {
+                    Log.w(TAG, "Discarding unreadable index", e);
+                }
+            }
+            long startedAt = System.currentTimeMillis();
+            LegalFaqIndex.pack(corpus, file);
+            index = LegalFaqIndex.open(file);
+            Log.d(TAG, "Packed " + index.getPassageCount() + " passages in " + (System.currentTimeMillis() - startedAt) + "ms");
+        } catch (IOException e) {
+            Log.e(TAG, "FAQ index unavailable", e);
+        }
+        return index;
+    }
+
+    private byte[] readCorpus() throws IOException {
+        try (InputStream input = context.getAssets().open(CORPUS_ASSET)) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = input.read(chunk)) != -1) {
+                output.write(chunk, 0, read);
+            }
+            return output.toByteArray();
+        }
+    }
+}
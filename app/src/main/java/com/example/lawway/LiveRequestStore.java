@@ -0,0 +1,334 @@
+package com.example.lawway;
+
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+public class LiveRequestStore {
+    private static final int PAGE_SIZE = 50;
+
+    private static final Map<String, LiveRequestStore> stores = new HashMap<>();
+
+    private static final Comparator<Request> NEWEST_FIRST = (a, b) -> {
+        Timestamp first = a.getCreatedAt();
+        Timestamp second = b.getCreatedAt();
+        if (first == null && second != null) return -1;
+        if (first != null && second == null) return 1;
+        if (first != null) {
+            int byTime = second.compareTo(first);
+            if (byTime != 0) return byTime;
+        }
+        return a.getRequestId().compareTo(b.getRequestId());
+    };
+
+    public enum Role {
+        LAWYER("lawyerId"),
+        CLIENT("clientId");
+
+        final String field;
+
+        Role(String field) {
+            this.field = field;
+        }
+    }
+
+    public interface Listener {
+        void onRequestsChanged(List<Request> requests, List<RequestChange> changes);
+
+        default void onRequestsError(Exception e) {
+        }
+    }
+
+    public static class RequestChange {
+        private final DocumentChange.Type type;
+        private final Request request;
+
+        RequestChange(DocumentChange.Type type, Request request) {
+            this.type = type;
+            this.request = request;
+        }
+
+        public DocumentChange.Type getType() {
+            return type;
+        }
+
+        public Request getRequest() {
+            return request;
+        }
+    }
+
+    private static class Page {
+        final Set<String> ids = new HashSet<>();
+        DocumentSnapshot startAfter;
+        DocumentSnapshot endAt;
+        DocumentSnapshot last;
+        ListenerRegistration registration;
+        boolean awaitingFullSnapshot;
+        boolean full;
+    }
+
+    private final String userId;
+    private final Role role;
+    private final Map<String, Request> requestsById = new HashMap<>();
+    private final List<Request> sortedRequests = new ArrayList<>();
+    private final List<Listener> listeners = new ArrayList<>();
+    private final List<Page> pages = new ArrayList<>();
+
+    private boolean attached;
+    private boolean loaded;
+    private boolean loadingMore;
+
+    public static LiveRequestStore forUser(String userId, Role role) {
+        Iterator<LiveRequestStore> iterator = stores.values().iterator();
+        while (iterator.hasNext()) {
+            LiveRequestStore store = iterator.next();
+            if (!store.userId.equals(userId)) {
+                store.detach();
+                iterator.remove();
+            }
+        }
+
+        String key = role.name() + ":" + userId;
+        LiveRequestStore store = stores.get(key);
+        if (store == null) {
+            store = new LiveRequestStore(userId, role);
+            stores.put(key, store);
+        }
+        return store;
+    }
+
+    private LiveRequestStore(String userId, Role role) {
+        this.userId = userId;
+        this.role = role;
+    }
+
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+        if (loaded) {
+            listener.onRequestsChanged(getRequests(), new ArrayList<>());
+        }
+        if (!attached) {
+            attach();
+        }
+    }
+
+    public void unsubscribe(Listener listener) {
+        listeners.remove(listener);
+        if (listeners.isEmpty()) {
+            detach();
+        }
+    }
+
+    public void loadMore() {
+        if (!hasMore() || loadingMore) {
+            return;
+        }
+        loadingMore = true;
+        Page tail = pages.get(pages.size() - 1);
+        tail.endAt = tail.last;
+        listen(tail);
+
+        Page next = new Page();
+        next.startAfter = tail.endAt;
+        pages.add(next);
+        listen(next);
+    }
+
+    public List<Request> getRequests() {
+        return Collections.unmodifiableList(new ArrayList<>(sortedRequests));
+    }
+
+    public Request getRequest(String requestId) {
+        return requestsById.get(requestId);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public boolean hasMore() {
+        return !pages.isEmpty() && pages.get(pages.size() - 1).full;
+    }
+
+    public boolean isLoadingMore() {
+        return loadingMore;
+    }
+
+    private void attach() {
+        attached = true;
+        if (pages.isEmpty()) {
+            pages.add(new Page());
+        }
+        for (Page page : pages) {
+            listen(page);
+        }
+    }
+
+    private void listen(Page page) {
+        if (page.registration != null) {
+            page.registration.remove();
+        }
+        Query query = RequestHelper.requestsByParticipantQuery(role.field, userId);
+        if (page.startAfter != null) {
+            query = query.startAfter(page.startAfter);
+        }
+        query = page.endAt != null ? query.endAt(page.endAt) : query.limit(PAGE_SIZE);
+
+        page.awaitingFullSnapshot = true;
+        page.registration = query.addSnapshotListener((snapshot, error) -> {
+            if (error != null) {
+                loadingMore = false;
+                for (Listener listener : new ArrayList<>(listeners)) {
+                    listener.onRequestsError(error);
+                }
+                return;
+            }
+            if (snapshot == null) {
+                return;
+            }
+
+            List<RequestChange> changes = page.awaitingFullSnapshot
+                    ? replacePage(page, snapshot)
+                    : applyChanges(page, snapshot.getDocumentChanges());
+            page.awaitingFullSnapshot = false;
+            List<DocumentSnapshot> documents = snapshot.getDocuments();
+            if (page.endAt == null) {
+                page.last = documents.isEmpty() ? null : documents.get(documents.size() - 1);
+                page.full = documents.size() >= PAGE_SIZE;
+                if (page == pages.get(pages.size() - 1)) {
+                    loadingMore = false;
+                }
+            }
+            loaded = true;
+
+            List<Request> requests = getRequests();
+            for (Listener listener : new ArrayList<>(listeners)) {
+                listener.onRequestsChanged(requests, changes);
+            }
+        });
+    }
+
+    private void detach() {
+        attached = false;
+        for (Page page : pages) {
+            if (page.registration != null) {
+                page.registration.remove();
+                page.registration = null;
+            }
+        }
+        loadingMore = false;
+    }
+
+    private List<RequestChange> replacePage(Page page, QuerySnapshot snapshot) {
+        List<RequestChange> changes = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (DocumentSnapshot document : snapshot.getDocuments()) {
+            Request request = RequestHelper.documentToRequest(document);
+            if (request == null || "deleted".equals(request.getStatus())) {
+                continue;
+            }
+            seen.add(request.getRequestId());
+            RequestChange change = put(request);
+            if (change != null) {
+                changes.add(change);
+            }
+        }
+
+        for (String requestId : page.ids) {
+            if (!seen.contains(requestId)) {
+                Request removed = remove(page, requestId);
+                if (removed != null) {
+                    changes.add(new RequestChange(DocumentChange.Type.REMOVED, removed));
+                }
+            }
+        }
+        page.ids.clear();
+        page.ids.addAll(seen);
+        return changes;
+    }
+
+    private List<RequestChange> applyChanges(Page page, List<DocumentChange> documentChanges) {
+        List<RequestChange> changes = new ArrayList<>();
+        for (DocumentChange change : documentChanges) {
+            Request request = RequestHelper.documentToRequest(change.getDocument());
+            if (request == null) {
+                continue;
+            }
+
+            if (change.getType() == DocumentChange.Type.REMOVED || "deleted".equals(request.getStatus())) {
+                page.ids.remove(request.getRequestId());
+                Request removed = remove(page, request.getRequestId());
+                if (removed != null) {
+                    changes.add(new RequestChange(DocumentChange.Type.REMOVED, removed));
+                }
+                continue;
+            }
+
+            page.ids.add(request.getRequestId());
+            RequestChange updated = put(request);
+            if (updated != null) {
+                changes.add(updated);
+            }
+        }
+        return changes;
+    }
+
+    private RequestChange put(Request request) {
+        Request previous = requestsById.remove(request.getRequestId());
+        if (previous != null) {
+            removeSorted(previous);
+        }
+        requestsById.put(request.getRequestId(), request);
+        int index = Collections.binarySearch(sortedRequests, request, NEWEST_FIRST);
+        sortedRequests.add(index < 0 ? -index - 1 : index, request);
+
+        if (previous == null) {
+            return new RequestChange(DocumentChange.Type.ADDED, request);
+        }
+        return sameState(previous, request) ? null : new RequestChange(DocumentChange.Type.MODIFIED, request);
+    }
+
+    private Request remove(Page page, String requestId) {
+        // A document can move between pages; keep it while another page still holds it.
+        for (Page other : pages) {
+            if (other != page && other.ids.contains(requestId)) {
+                return null;
+            }
+        }
+        Request previous = requestsById.remove(requestId);
+        if (previous != null) {
+            removeSorted(previous);
+        }
+        return previous;
+    }
+
+    private void removeSorted(Request request) {
+        int index = Collections.binarySearch(sortedRequests, request, NEWEST_FIRST);
+        if (index >= 0) {
+            sortedRequests.remove(index);
+        } else {
+            sortedRequests.remove(request);
+        }
+    }
+
+    private static boolean sameState(Request a, Request b) {
+        return Objects.equals(a.getStatus(), b.getStatus())
+                && Objects.equals(a.getMessage(), b.getMessage())
+                && Objects.equals(a.getRespondedAt(), b.getRespondedAt())
+                && Objects.equals(a.getCaseId(), b.getCaseId());
+    }
+}
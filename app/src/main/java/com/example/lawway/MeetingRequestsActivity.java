@@ -4,32 +4,49 @@ import android.os.Bundle;
 import android.view.View;
 import android.widget.EditText;
 import android.widget.ImageView;
-import android.widget.LinearLayout;
-import android.widget.RelativeLayout;
 import android.widget.TextView;
 
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.QuerySnapshot;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 
 public class MeetingRequestsActivity extends AppCompatActivity {
 
+    private static final int PREFETCH_DISTANCE = 5;
+
     private ImageView ivBack, ivFilter;
     private EditText etSearch;
-    private LinearLayout llRequests;
+    private RecyclerView rvRequests;
+    private TextView tvRequestsState;
+    private RequestAdapter requestAdapter;
     private List<RequestItem> requestItems;
+    private LiveRequestStore requestStore;
+    private int joinGeneration;
     private FirebaseAuth auth;
 
+    private final LiveRequestStore.Listener storeListener = new LiveRequestStore.Listener() {
+        @Override
+        public void onRequestsChanged(List<Request> requests, List<LiveRequestStore.RequestChange> changes) {
+            MeetingRequestsActivity.this.onRequestsChanged(requests);
+        }
+
+        @Override
+        public void onRequestsError(Exception e) {
+            if (requestItems == null || requestItems.isEmpty()) {
+                showState("Error loading requests: " + e.getMessage(), R.color.status_declined);
+            }
+        }
+    };
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -41,11 +58,30 @@ public class MeetingRequestsActivity extends AppCompatActivity {
         loadRequestsFromDatabase();
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (requestStore != null) {
+            requestStore.unsubscribe(storeListener);
+        }
+    }
+
     private void initViews() {
         ivBack = findViewById(R.id.ivBack);
         ivFilter = findViewById(R.id.ivFilter);
         etSearch = findViewById(R.id.etSearch);
-        llRequests = findViewById(R.id.llRequests);
+        rvRequests = findViewById(R.id.rvRequests);
+        tvRequestsState = findViewById(R.id.tvRequestsState);
+
+        requestAdapter = new RequestAdapter(this);
+        rvRequests.setLayoutManager(new LinearLayoutManager(this));
+        rvRequests.setAdapter(requestAdapter);
+        rvRequests.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                onRequestsScrolled();
+            }
+        });
     }
 
     private void setupClickListeners() {
@@ -61,90 +97,45 @@ public class MeetingRequestsActivity extends AppCompatActivity {
             return;
         }
 
-        llRequests.removeAllViews();
-        TextView loadingText = new TextView(this);
-        loadingText.setText("Loading requests...");
-        loadingText.setTextColor(getResources().getColor(R.color.dashboard_text_secondary, null));
-        loadingText.setPadding(16, 16, 16, 16);
-        llRequests.addView(loadingText);
+        requestStore = LiveRequestStore.forUser(user.getUid(), LiveRequestStore.Role.CLIENT);
+        if (!requestStore.isLoaded()) {
+            showState("Loading requests...", R.color.dashboard_text_secondary);
+        }
+        requestStore.subscribe(storeListener);
+    }
 
-        RequestHelper.getRequestsByClientId(user.getUid())
-                .addOnSuccessListener(querySnapshot -> {
-                    requestItems = new ArrayList<>();
-                    
-                    if (querySnapshot.isEmpty()) {
-                        llRequests.removeAllViews();
-                        TextView emptyText = new TextView(this);
-                        emptyText.setText("No requests found");
-                        emptyText.setTextColor(getResources().getColor(R.color.dashboard_text_secondary, null));
-                        emptyText.setPadding(16, 16, 16, 16);
-                        llRequests.addView(emptyText);
+    private void onRequestsChanged(List<Request> requests) {
+        if (requests.isEmpty()) {
+            requestItems = new ArrayList<>();
+            requestAdapter.submitList(null);
+            showState("No requests found", R.color.dashboard_text_secondary);
+            return;
+        }
+
+        int generation = ++joinGeneration;
+        RequestJoinLoader.loadWithLawyers(requests)
+                .addOnSuccessListener(rows -> {
+                    if (generation != joinGeneration) {
                         return;
                     }
-
-                    List<DocumentSnapshot> documents = querySnapshot.getDocuments();
-                    int[] loadedCount = {0};
-                    int totalCount = documents.size();
-
-                    for (DocumentSnapshot doc : documents) {
-                        Request request = RequestHelper.documentToRequest(doc);
-                        if (request == null) continue;
-
-                        loadRequestDetails(request, () -> {
-                            loadedCount[0]++;
-                            if (loadedCount[0] == totalCount) {
-                                runOnUiThread(() -> {
-                                    llRequests.removeAllViews();
-                                    displayRequests();
-                                });
-                            }
-                        });
+                    requestItems = new ArrayList<>();
+                    for (RequestJoinLoader.JoinedRequest row : rows) {
+                        createRequestItem(row.getRequest(), row.getCounterpart(), row.getCase());
                     }
-                })
-                .addOnFailureListener(e -> {
-                    llRequests.removeAllViews();
-                    TextView errorText = new TextView(this);
-                    errorText.setText("Error loading requests: " + e.getMessage());
-                    errorText.setTextColor(getResources().getColor(R.color.status_declined, null));
-                    errorText.setPadding(16, 16, 16, 16);
-                    llRequests.addView(errorText);
+                    displayRequests();
                 });
     }
 
-    private void loadRequestDetails(Request request, Runnable onComplete) {
-        String lawyerId = request.getLawyerId();
-        String caseId = request.getCaseId();
-        
-        UserHelper.getUserById(lawyerId)
-                .addOnSuccessListener(lawyerDoc -> {
-                    User lawyer = null;
-                    if (lawyerDoc.exists()) {
-                        lawyer = UserHelper.documentToUser(lawyerDoc);
-                    }
+    private void onRequestsScrolled() {
+        if (requestStore == null || !requestStore.hasMore() || requestStore.isLoadingMore()) {
+            return;
+        }
 
-                    if (caseId != null && !caseId.isEmpty()) {
-                        CaseHelper.getCaseById(caseId)
-                                .addOnSuccessListener(caseDoc -> {
-                                    Case caseObj = null;
-                                    if (caseDoc.exists()) {
-                                        caseObj = CaseHelper.documentToCase(caseDoc);
-                                    }
-                                    createRequestItem(request, lawyer, caseObj);
-                                    onComplete.run();
-                                })
-                                .addOnFailureListener(e -> {
-                                    createRequestItem(request, lawyer, null);
-                                    onComplete.run();
-                                });
-                    } else {
-                        createRequestItem(request, lawyer, null);
-                        onComplete.run();
-                    }
-                })
-                .addOnFailureListener(e -> {
-                    createRequestItem(request, null, null);
-                    onComplete.run();
-                });
+        LinearLayoutManager layoutManager = (LinearLayoutManager) rvRequests.getLayoutManager();
+        int remaining = requestAdapter.getItemCount() - 1 - layoutManager.findLastVisibleItemPosition();
+        if (remaining <= PREFETCH_DISTANCE) {
+            requestStore.loadMore();
+        }
     }
 
     private void createRequestItem(Request request, User lawyer, Case caseObj) {
@@ -211,273 +202,13 @@ public class MeetingRequestsActivity extends AppCompatActivity {
     }
 
     private void displayRequests() {
-        llRequests.removeAllViews();
-
-        for (RequestItem item : requestItems) {
-            View cardView = createRequestCard(item);
-            llRequests.addView(cardView);
-        }
+        tvRequestsState.setVisibility(View.GONE);
+        requestAdapter.submitList(new ArrayList<>(requestItems), this::onRequestsScrolled);
     }
 
-    private View createRequestCard(RequestItem item) {
-        LinearLayout cardLayout = new LinearLayout(this);
-        LinearLayout.LayoutParams cardParams = new LinearLayout.LayoutParams(
-            LinearLayout.LayoutParams.MATCH_PARENT,
-            LinearLayout.LayoutParams.WRAP_CONTENT);
-        cardParams.setMargins(0, 0, 0, 16);
-        cardLayout.setLayoutParams(cardParams);
-        cardLayout.setOrientation(LinearLayout.HORIZONTAL);
-        cardLayout.setPadding(16, 16, 16, 16);
-        cardLayout.setBackgroundResource(R.drawable.bg_request_card);
-        cardLayout.setClickable(true);
-        cardLayout.setFocusable(true);
-
-        ImageView avatar = new ImageView(this);
-        LinearLayout.LayoutParams avatarParams = new LinearLayout.LayoutParams(56, 56);
-        avatar.setLayoutParams(avatarParams);
-        avatar.setImageResource(R.drawable.ic_profile_picture);
-        avatar.setBackgroundResource(R.drawable.bg_category_circle);
-        avatar.setScaleType(ImageView.ScaleType.CENTER_CROP);
-        
-        if (item.profileImageUrl != null && !item.profileImageUrl.isEmpty()) {
-            loadProfileImage(avatar, item.profileImageUrl);
-        }
-        
-        cardLayout.addView(avatar);
-
-        LinearLayout contentLayout = new LinearLayout(this);
-        LinearLayout.LayoutParams contentParams = new LinearLayout.LayoutParams(
-            0,
-            LinearLayout.LayoutParams.WRAP_CONTENT,
-            1.0f);
-        contentParams.setMargins(16, 0, 16, 0);
-        contentLayout.setLayoutParams(contentParams);
-        contentLayout.setOrientation(LinearLayout.VERTICAL);
-        cardLayout.addView(contentLayout);
-
-        LinearLayout nameLayout = new LinearLayout(this);
-        nameLayout.setLayoutParams(new LinearLayout.LayoutParams(
-            LinearLayout.LayoutParams.MATCH_PARENT,
-            LinearLayout.LayoutParams.WRAP_CONTENT));
-        nameLayout.setOrientation(LinearLayout.HORIZONTAL);
-        nameLayout.setGravity(android.view.Gravity.CENTER_VERTICAL);
-        contentLayout.addView(nameLayout);
-
-        TextView nameText = new TextView(this);
-        LinearLayout.LayoutParams nameParams = new LinearLayout.LayoutParams(
-            0,
-            LinearLayout.LayoutParams.WRAP_CONTENT,
-            1.0f);
-        nameText.setLayoutParams(nameParams);
-        nameText.setText(item.name);
-        nameText.setTextColor(getResources().getColor(R.color.dashboard_text_primary, null));
-        nameText.setTextSize(16);
-        nameText.setTypeface(null, android.graphics.Typeface.BOLD);
-        nameLayout.addView(nameText);
-
-        TextView statusBadge = new TextView(this);
-        LinearLayout.LayoutParams statusParams = new LinearLayout.LayoutParams(
-            LinearLayout.LayoutParams.WRAP_CONTENT,
-            LinearLayout.LayoutParams.WRAP_CONTENT);
-        statusParams.setMargins(8, 0, 0, 0);
-        statusBadge.setLayoutParams(statusParams);
-        statusBadge.setText(item.status);
-        statusBadge.setTextColor(getResources().getColor(android.R.color.white, null));
-        statusBadge.setTextSize(10);
-        statusBadge.setTypeface(null, android.graphics.Typeface.BOLD);
-        statusBadge.setPadding(8, 4, 8, 4);
-        
-        int statusBgRes;
-        if (item.status.equals("PENDING")) {
-            statusBgRes = R.drawable.bg_status_pending;
-        } else if (item.status.equals("ACCEPTED")) {
-            statusBgRes = R.drawable.bg_status_accepted;
-        } else {
-            statusBgRes = R.drawable.bg_status_declined;
-        }
-        statusBadge.setBackgroundResource(statusBgRes);
-        nameLayout.addView(statusBadge);
-
-        TextView specialtyText = new TextView(this);
-        specialtyText.setLayoutParams(new LinearLayout.LayoutParams(
-            LinearLayout.LayoutParams.WRAP_CONTENT,
-            LinearLayout.LayoutParams.WRAP_CONTENT));
-        specialtyText.setText(item.specialty);
-        specialtyText.setTextColor(getResources().getColor(R.color.dashboard_primary, null));
-        specialtyText.setTextSize(12);
-        specialtyText.setTypeface(null, android.graphics.Typeface.BOLD);
-        specialtyText.setPadding(0, 4, 0, 0);
-        contentLayout.addView(specialtyText);
-
-        TextView descriptionText = new TextView(this);
-        descriptionText.setLayoutParams(new LinearLayout.LayoutParams(
-            LinearLayout.LayoutParams.MATCH_PARENT,
-            LinearLayout.LayoutParams.WRAP_CONTENT));
-        descriptionText.setText(item.description);
-        descriptionText.setTextColor(getResources().getColor(R.color.dashboard_text_secondary, null));
-        descriptionText.setTextSize(14);
-        descriptionText.setPadding(0, 8, 0, 8);
-        descriptionText.setMaxLines(2);
-        descriptionText.setEllipsize(android.text.TextUtils.TruncateAt.END);
-        contentLayout.addView(descriptionText);
-
-        if (!item.date.isEmpty()) {
-            LinearLayout dateLayout = new LinearLayout(this);
-            dateLayout.setLayoutParams(new LinearLayout.LayoutParams(
-                LinearLayout.LayoutParams.WRAP_CONTENT,
-                LinearLayout.LayoutParams.WRAP_CONTENT));
-            dateLayout.setOrientation(LinearLayout.HORIZONTAL);
-            dateLayout.setGravity(android.view.Gravity.CENTER_VERTICAL);
-            contentLayout.addView(dateLayout);
-
-            ImageView calendarIcon = new ImageView(this);
-            LinearLayout.LayoutParams iconParams = new LinearLayout.LayoutParams(16, 16);
-            iconParams.setMargins(0, 0, 4, 0);
-            calendarIcon.setLayoutParams(iconParams);
-            calendarIcon.setImageResource(R.drawable.ic_calendar);
-            dateLayout.addView(calendarIcon);
-
-            TextView dateText = new TextView(this);
-            dateText.setLayoutParams(new LinearLayout.LayoutParams(
-                LinearLayout.LayoutParams.WRAP_CONTENT,
-                LinearLayout.LayoutParams.WRAP_CONTENT));
-            dateText.setText(item.date);
-            dateText.setTextColor(getResources().getColor(R.color.dashboard_text_secondary, null));
-            dateText.setTextSize(12);
-            dateLayout.addView(dateText);
-        }
-
-        if (item.status.equals("DECLINED")) {
-            LinearLayout infoLayout = new LinearLayout(this);
-            infoLayout.setLayoutParams(new LinearLayout.LayoutParams(
-                LinearLayout.LayoutParams.WRAP_CONTENT,
-                LinearLayout.LayoutParams.WRAP_CONTENT));
-            infoLayout.setOrientation(LinearLayout.HORIZONTAL);
-            infoLayout.setGravity(android.view.Gravity.CENTER_VERTICAL);
-            infoLayout.setPadding(0, 4, 0, 0);
-            contentLayout.addView(infoLayout);
-
-            ImageView infoIcon = new ImageView(this);
-            LinearLayout.LayoutParams infoIconParams = new LinearLayout.LayoutParams(16, 16);
-            infoIconParams.setMargins(0, 0, 4, 0);
-            infoIcon.setLayoutParams(infoIconParams);
-            infoIcon.setImageResource(R.drawable.ic_info_circle);
-            infoLayout.addView(infoIcon);
-
-            TextView infoText = new TextView(this);
-            infoText.setLayoutParams(new LinearLayout.LayoutParams(
-                LinearLayout.LayoutParams.WRAP_CONTENT,
-                LinearLayout.LayoutParams.WRAP_CONTENT));
-            infoText.setText(getString(R.string.lawyer_unavailable));
-            infoText.setTextColor(getResources().getColor(R.color.dashboard_text_secondary, null));
-            infoText.setTextSize(12);
-            infoLayout.addView(infoText);
-        }
-
-        LinearLayout actionLayout = new LinearLayout(this);
-        actionLayout.setLayoutParams(new LinearLayout.LayoutParams(
-            LinearLayout.LayoutParams.WRAP_CONTENT,
-            LinearLayout.LayoutParams.WRAP_CONTENT));
-        actionLayout.setOrientation(LinearLayout.HORIZONTAL);
-        actionLayout.setGravity(android.view.Gravity.CENTER_VERTICAL);
-        actionLayout.setPadding(0, 8, 0, 0);
-        contentLayout.addView(actionLayout);
-
-        if (item.actionType.equals("join_chat")) {
-            TextView joinButton = new TextView(this);
-            LinearLayout.LayoutParams buttonParams = new LinearLayout.LayoutParams(
-                LinearLayout.LayoutParams.WRAP_CONTENT,
-                LinearLayout.LayoutParams.WRAP_CONTENT);
-            joinButton.setLayoutParams(buttonParams);
-            joinButton.setText(getString(R.string.join_chat));
-            joinButton.setTextColor(getResources().getColor(android.R.color.white, null));
-            joinButton.setTextSize(14);
-            joinButton.setTypeface(null, android.graphics.Typeface.BOLD);
-            joinButton.setPadding(16, 8, 16, 8);
-            joinButton.setBackgroundResource(R.drawable.bg_join_chat_button);
-            joinButton.setClickable(true);
-            joinButton.setFocusable(true);
-            actionLayout.addView(joinButton);
-        } else if (item.actionType.equals("find_alternative")) {
-            TextView findButton = new TextView(this);
-            findButton.setLayoutParams(new LinearLayout.LayoutParams(
-                LinearLayout.LayoutParams.WRAP_CONTENT,
-                LinearLayout.LayoutParams.WRAP_CONTENT));
-            findButton.setText(getString(R.string.find_alternative));
-            findButton.setTextColor(getResources().getColor(R.color.dashboard_primary, null));
-            findButton.setTextSize(14);
-            findButton.setClickable(true);
-            findButton.setFocusable(true);
-            actionLayout.addView(findButton);
-        } else {
-            LinearLayout viewDetailsLayout = new LinearLayout(this);
-            viewDetailsLayout.setLayoutParams(new LinearLayout.LayoutParams(
-                LinearLayout.LayoutParams.WRAP_CONTENT,
-                LinearLayout.LayoutParams.WRAP_CONTENT));
-            viewDetailsLayout.setOrientation(LinearLayout.HORIZONTAL);
-            viewDetailsLayout.setGravity(android.view.Gravity.CENTER_VERTICAL);
-            viewDetailsLayout.setClickable(true);
-            viewDetailsLayout.setFocusable(true);
-            actionLayout.addView(viewDetailsLayout);
-
-            TextView viewDetailsText = new TextView(this);
-            viewDetailsText.setLayoutParams(new LinearLayout.LayoutParams(
-                LinearLayout.LayoutParams.WRAP_CONTENT,
-                LinearLayout.LayoutParams.WRAP_CONTENT));
-            viewDetailsText.setText(getString(R.string.view_details));
-            viewDetailsText.setTextColor(getResources().getColor(R.color.dashboard_primary, null));
-            viewDetailsText.setTextSize(14);
-            viewDetailsLayout.addView(viewDetailsText);
-
-            ImageView arrowIcon = new ImageView(this);
-            LinearLayout.LayoutParams arrowParams = new LinearLayout.LayoutParams(16, 16);
-            arrowParams.setMargins(4, 0, 0, 0);
-            arrowIcon.setLayoutParams(arrowParams);
-            arrowIcon.setImageResource(R.drawable.ic_arrow_forward);
-            viewDetailsLayout.addView(arrowIcon);
-        }
-
-        return cardLayout;
-    }
-
-    private void loadProfileImage(ImageView imageView, String imageUrl) {
-        if (imageUrl != null && !imageUrl.isEmpty()) {
-            new Thread(() -> {
-                try {
-                    java.net.URL url = new java.net.URL(imageUrl);
-                    android.graphics.Bitmap bitmap = android.graphics.BitmapFactory.decodeStream(url.openConnection().getInputStream());
-                    runOnUiThread(() -> {
-                        if (bitmap != null) {
-                            imageView.setImageBitmap(bitmap);
-                        }
-                    });
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
-            }).start();
-        }
-    }
-
-    private static class RequestItem {
-        String name;
-        String specialty;
-        String description;
-        String status;
-        String date;
-        String actionType;
-        String profileImageUrl;
-        String requestId;
-
-        RequestItem(String name, String specialty, String description, String status,
-                   String date, String actionType, String profileImageUrl, String requestId) {
-            this.name = name;
-            this.specialty = specialty;
-            this.description = description;
-            this.status = status;
-            this.date = date;
-            this.actionType = actionType;
-            this.profileImageUrl = profileImageUrl;
-            this.requestId = requestId;
-        }
+    private void showState(String message, int colorRes) {
+        tvRequestsState.setText(message);
+        tvRequestsState.setTextColor(getResources().getColor(colorRes, null));
+        tvRequestsState.setVisibility(View.VISIBLE);
     }
 }
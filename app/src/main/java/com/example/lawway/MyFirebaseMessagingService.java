@@ -1,38 +1,42 @@
 package com.example.lawway;
 
-import android.app.NotificationManager;
 import android.util.Log;
 
-import androidx.core.app.NotificationCompat;
-
 import com.google.firebase.messaging.FirebaseMessagingService;
 import com.google.firebase.messaging.RemoteMessage;
 
+import java.util.Map;
+
 public class MyFirebaseMessagingService extends FirebaseMessagingService {
     private static final String TAG = "FCMService";
 
     @Override
     public void onMessageReceived(RemoteMessage remoteMessage) {
         super.onMessageReceived(remoteMessage);
-        
+
+        // The dispatcher sends data-only messages so this runs even when the app is in the
+        // background; notification messages from older senders are still handled.
+        Map<String, String> data = remoteMessage.getData();
+        String title = data.get("title");
+        String body = data.get("body");
         if (remoteMessage.getNotification() != null) {
-            String title = remoteMessage.getNotification().getTitle();
-            String body = remoteMessage.getNotification().getBody();
-            
-            String requestId = null;
-            String userType = null;
-            if (remoteMessage.getData() != null) {
-                requestId = remoteMessage.getData().get("requestId");
-                userType = remoteMessage.getData().get("userType");
-            }
-            
-            if (title != null && body != null) {
-                if (userType != null && userType.equals("Lawyer")) {
-                    NotificationHelper.showRequestNotification(this, title, body, requestId, userType);
-                } else {
-                    NotificationHelper.showAcceptedNotification(this, title, body, requestId);
-                }
-            }
+            title = remoteMessage.getNotification().getTitle();
+            body = remoteMessage.getNotification().getBody();
+        }
+        String requestId = data.get("requestId");
+        String userType = data.get("userType");
+
+        RequestPrefetchWorker.enqueue(this, data);
+
+        if (title == null || body == null) {
+            return;
+        }
+        boolean forLawyer = userType != null && userType.equals("Lawyer");
+        // Shares keys with the dashboard listeners so a push and a snapshot for the same
+        // request only notify once. Both steps finish before returning, while FCM keeps us awake.
+        if (requestId == null
+                || SeenIdStore.getInstance(this).markIfNew((forLawyer ? "new_request_" : "accepted_") + requestId)) {
+            NotificationAggregator.getInstance(this).postPush(forLawyer, requestId, title, body);
         }
     }
 
@@ -0,0 +1,148 @@
+package com.example.lawway;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/** Collects request notifications for a short window and posts each burst as one group. */
+public class NotificationAggregator {
+    private static final long DEBOUNCE_MS = 1500;
+    private static final long MAX_DELAY_MS = 5000;
+
+    private static final String NEW_REQUEST_TITLE = "New Request Received";
+    private static final String ACCEPTED_TITLE = "Request Accepted";
+    private static final String ACCEPTED_MESSAGE = "Your case request has been accepted by the lawyer";
+
+    private static NotificationAggregator instance;
+
+    private final Context context;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Map<String, Pending> pendingRequests = new LinkedHashMap<>();
+    private final Map<String, NotificationHelper.Entry> pendingAccepted = new LinkedHashMap<>();
+    private long firstPendingAt;
+    private long lastPushAlertAt;
+    private final Runnable flushRunnable = this::flush;
+
+    private static class Pending {
+        final String requestId;
+        final String clientId;
+
+        Pending(String requestId, String clientId) {
+            this.requestId = requestId;
+            this.clientId = clientId;
+        }
+    }
+
+    public static synchronized NotificationAggregator getInstance(Context context) {
+        if (instance == null) {
+            instance = new NotificationAggregator(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private NotificationAggregator(Context context) {
+        this.context = context;
+    }
+
+    /** Queues a new-request notification whose text still needs the client's name. */
+    public void addNewRequest(Request request) {
+        mainHandler.post(() -> {
+            pendingRequests.put(request.getRequestId(), new Pending(request.getRequestId(), request.getClientId()));
+            schedule();
+        });
+    }
+
+    /** Posts a pushed notification before returning; pushes within DEBOUNCE_MS of the last alert are silent. */
+    public void postPush(boolean forLawyer, String requestId, String title, String message) {
+        boolean alert;
+        synchronized (this) {
+            long now = SystemClock.uptimeMillis();
+            alert = lastPushAlertAt == 0 || now - lastPushAlertAt >= DEBOUNCE_MS;
+            if (alert) {
+                lastPushAlertAt = now;
+            }
+        }
+        List<NotificationHelper.Entry> entries = Collections.singletonList(new NotificationHelper.Entry(requestId, title, message));
+        if (forLawyer) {
+            NotificationHelper.showRequestNotifications(context, entries, alert);
+        } else {
+            NotificationHelper.showAcceptedNotifications(context, entries, alert);
+        }
+    }
+
+    public void addAccepted(String requestId) {
+        mainHandler.post(() -> {
+            pendingAccepted.put(requestId, new NotificationHelper.Entry(requestId, ACCEPTED_TITLE, ACCEPTED_MESSAGE));
+            schedule();
+        });
+    }
+
+    private void schedule() {
+        long now = SystemClock.uptimeMillis();
+        if (firstPendingAt == 0) {
+            firstPendingAt = now;
+        }
+        // Each arrival restarts the window, but a steady trickle still flushes after MAX_DELAY_MS.
+        long delay = Math.min(DEBOUNCE_MS, firstPendingAt + MAX_DELAY_MS - now);
+        mainHandler.removeCallbacks(flushRunnable);
+        mainHandler.postDelayed(flushRunnable, Math.max(0, delay));
+    }
+
+    private void flush() {
+        firstPendingAt = 0;
+
+        if (!pendingAccepted.isEmpty()) {
+            List<NotificationHelper.Entry> accepted = new ArrayList<>(pendingAccepted.values());
+            pendingAccepted.clear();
+            NotificationHelper.showAcceptedNotifications(context, accepted);
+        }
+
+        if (pendingRequests.isEmpty()) {
+            return;
+        }
+        List<Pending> requests = new ArrayList<>(pendingRequests.values());
+        pendingRequests.clear();
+
+        Set<String> clientIds = new LinkedHashSet<>();
+        for (Pending pending : requests) {
+            if (pending.clientId != null) {
+                clientIds.add(pending.clientId);
+            }
+        }
+        if (clientIds.isEmpty()) {
+            showRequests(requests, Collections.<String, User>emptyMap());
+            return;
+        }
+        UserHelper.getUsersByIds(clientIds).addOnCompleteListener(task -> {
+            Map<String, User> clients = task.isSuccessful() && task.getResult() != null
+                ? task.getResult()
+                : Collections.<String, User>emptyMap();
+            showRequests(requests, clients);
+        });
+    }
+
+    private void showRequests(List<Pending> requests, Map<String, User> clients) {
+        List<NotificationHelper.Entry> entries = new ArrayList<>(requests.size());
+        for (Pending pending : requests) {
+            String clientName = "A client";
+            User client = clients.get(pending.clientId);
+            if (client != null && client.getFullName() != null) {
+                clientName = client.getFullName();
+            }
+            entries.add(new NotificationHelper.Entry(
+                pending.requestId,
+                NEW_REQUEST_TITLE,
+                clientName + " has sent you a new case request"));
+        }
+        NotificationHelper.showRequestNotifications(context, entries);
+    }
+}
@@ -1,22 +1,47 @@
 package com.example.lawway;
 
+import android.app.Notification;
 import android.app.NotificationChannel;
 import android.app.NotificationManager;
 import android.app.PendingIntent;
 import android.content.Context;
 import android.content.Intent;
 import android.os.Build;
+import android.service.notification.StatusBarNotification;
 
 import androidx.core.app.NotificationCompat;
 
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 public class NotificationHelper {
     private static final String CHANNEL_ID = "lawway_notifications";
     private static final String CHANNEL_NAME = "Lawway Notifications";
     private static final int NOTIFICATION_ID_REQUEST = 1001;
     private static final int NOTIFICATION_ID_ACCEPTED = 1002;
+    private static final String GROUP_REQUESTS = "com.example.lawway.REQUESTS";
+    private static final String GROUP_ACCEPTED = "com.example.lawway.ACCEPTED";
+    private static final int MAX_SUMMARY_LINES = 5;
+
+    public static class Entry {
+        final String requestId;
+        final String title;
+        final String message;
+
+        public Entry(String requestId, String title, String message) {
+            this.requestId = requestId;
+            this.title = title;
+            this.message = message;
+        }
+    }
 
     public static void createNotificationChannel(Context context) {
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
@@ -35,68 +60,118 @@ public class NotificationHelper {
     }
 
     public static void showRequestNotification(Context context, String title, String message, String requestId, String userType) {
-        createNotificationChannel(context);
-        
-        Intent intent;
+        List<Entry> entries = Collections.singletonList(new Entry(requestId, title, message));
         if (userType != null && userType.equals("Lawyer")) {
-            intent = new Intent(context, LawyerRequestsActivity.class);
+            showRequestNotifications(context, entries);
         } else {
-            intent = new Intent(context, MeetingRequestsActivity.class);
+            showAcceptedNotifications(context, entries);
         }
-        intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
-        intent.putExtra("requestId", requestId);
-        
-        PendingIntent pendingIntent = PendingIntent.getActivity(
-            context,
-            0,
-            intent,
-            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
-        );
-        
-        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
+    }
+
+    public static void showAcceptedNotification(Context context, String title, String message, String requestId) {
+        showAcceptedNotifications(context, Collections.singletonList(new Entry(requestId, title, message)));
+    }
+
+    public static void showRequestNotifications(Context context, List<Entry> entries) {
+        showRequestNotifications(context, entries, true);
+    }
+
+    public static void showRequestNotifications(Context context, List<Entry> entries, boolean alert) {
+        postGroup(context, GROUP_REQUESTS, NOTIFICATION_ID_REQUEST, LawyerRequestsActivity.class, "new case requests", entries, alert);
+    }
+
+    public static void showAcceptedNotifications(Context context, List<Entry> entries) {
+        showAcceptedNotifications(context, entries, true);
+    }
+
+    public static void showAcceptedNotifications(Context context, List<Entry> entries, boolean alert) {
+        postGroup(context, GROUP_ACCEPTED, NOTIFICATION_ID_ACCEPTED, MeetingRequestsActivity.class, "requests accepted", entries, alert);
+    }
+
+    private static void postGroup(Context context, String group, int summaryId, Class<?> target, String summaryLabel, List<Entry> entries, boolean alert) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        createNotificationChannel(context);
+        NotificationManager notificationManager = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+        if (notificationManager == null) {
+            return;
+        }
+
+        Map<Integer, CharSequence> lines = new LinkedHashMap<>();
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            lines.put(childId(entries.get(i).requestId), entries.get(i).message);
+        }
+        for (StatusBarNotification active : notificationManager.getActiveNotifications()) {
+            if (group.equals(active.getTag()) && active.getId() != summaryId && !lines.containsKey(active.getId())) {
+                lines.put(active.getId(), active.getNotification().extras.getCharSequence(Notification.EXTRA_TEXT));
+            }
+        }
+        boolean grouped = lines.size() > 1;
+
+        for (Entry entry : entries) {
+            int id = childId(entry.requestId);
+            NotificationCompat.Builder builder = baseBuilder(context, entry.title, entry.message, contentIntent(context, target, entry.requestId, id))
+                .setStyle(new NotificationCompat.BigTextStyle().bigText(entry.message))
+                .setGroup(group)
+                .setSilent(!alert);
+            if (grouped) {
+                builder.setGroupAlertBehavior(NotificationCompat.GROUP_ALERT_SUMMARY);
+            }
+            notificationManager.notify(group, id, builder.build());
+        }
+
+        if (!grouped) {
+            return;
+        }
+        String summaryTitle = lines.size() + " " + summaryLabel;
+        NotificationCompat.InboxStyle style = new NotificationCompat.InboxStyle().setBigContentTitle(summaryTitle);
+        int shown = 0;
+        for (CharSequence line : lines.values()) {
+            if (shown++ == MAX_SUMMARY_LINES) {
+                break;
+            }
+            style.addLine(line);
+        }
+        if (lines.size() > MAX_SUMMARY_LINES) {
+            style.setSummaryText("+" + (lines.size() - MAX_SUMMARY_LINES) + " more");
+        }
+        NotificationCompat.Builder summary = baseBuilder(context, summaryTitle, entries.get(entries.size() - 1).message, contentIntent(context, target, null, summaryId))
+            .setStyle(style)
+            .setNumber(lines.size())
+            .setGroup(group)
+            .setGroupSummary(true)
+            .setSilent(!alert);
+        notificationManager.notify(group, summaryId, summary.build());
+    }
+
+    private static NotificationCompat.Builder baseBuilder(Context context, String title, CharSequence message, PendingIntent contentIntent) {
+        return new NotificationCompat.Builder(context, CHANNEL_ID)
             .setSmallIcon(R.drawable.ic_notification)
             .setContentTitle(title)
             .setContentText(message)
-            .setStyle(new NotificationCompat.BigTextStyle().bigText(message))
             .setPriority(NotificationCompat.PRIORITY_HIGH)
-            .setContentIntent(pendingIntent)
+            .setContentIntent(contentIntent)
             .setAutoCancel(true)
             .setDefaults(NotificationCompat.DEFAULT_ALL);
-        
-        NotificationManager notificationManager = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
-        if (notificationManager != null) {
-            notificationManager.notify(NOTIFICATION_ID_REQUEST, builder.build());
-        }
     }
 
-    public static void showAcceptedNotification(Context context, String title, String message, String requestId) {
-        createNotificationChannel(context);
-        
-        Intent intent = new Intent(context, MeetingRequestsActivity.class);
+    private static PendingIntent contentIntent(Context context, Class<?> target, String requestId, int requestCode) {
+        Intent intent = new Intent(context, target);
         intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
-        intent.putExtra("requestId", requestId);
-        
-        PendingIntent pendingIntent = PendingIntent.getActivity(
+        if (requestId != null) {
+            intent.putExtra("requestId", requestId);
+        }
+        return PendingIntent.getActivity(
             context,
-            0,
+            requestCode,
             intent,
             PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
         );
-        
-        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
-            .setSmallIcon(R.drawable.ic_notification)
-            .setContentTitle(title)
-            .setContentText(message)
-            .setStyle(new NotificationCompat.BigTextStyle().bigText(message))
-            .setPriority(NotificationCompat.PRIORITY_HIGH)
-            .setContentIntent(pendingIntent)
-            .setAutoCancel(true)
-            .setDefaults(NotificationCompat.DEFAULT_ALL);
-        
-        NotificationManager notificationManager = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
-        if (notificationManager != null) {
-            notificationManager.notify(NOTIFICATION_ID_ACCEPTED, builder.build());
-        }
+    }
+
+    private static int childId(String requestId) {
+        return requestId != null ? requestId.hashCode() : 0;
     }
 
     public static void sendNotificationToUser(String userId, String title, String message, String requestId, String userType) {
@@ -104,9 +179,21 @@ public class NotificationHelper {
     }
 
     private static void storeNotificationInFirestore(String userId, String title, String message, String requestId, String userType) {
-        FirebaseFirestore db = FirebaseFirestore.getInstance();
-        
-        java.util.Map<String, Object> notificationData = new java.util.HashMap<>();
+        newNotificationReference()
+            .set(buildNotificationData(userId, title, message, requestId, userType))
+            .addOnSuccessListener(aVoid -> {
+            })
+            .addOnFailureListener(e -> {
+            });
+    }
+
+    static DocumentReference newNotificationReference() {
+        FirebaseFirestore db = FirestoreProvider.getInstance();
+        return db.collection("notifications").document();
+    }
+
+    static Map<String, Object> buildNotificationData(String userId, String title, String message, String requestId, String userType) {
+        Map<String, Object> notificationData = new HashMap<>();
         notificationData.put("userId", userId);
         notificationData.put("title", title);
         notificationData.put("message", message);
@@ -114,13 +201,9 @@ public class NotificationHelper {
         notificationData.put("userType", userType);
         notificationData.put("type", "request");
         notificationData.put("read", false);
-        notificationData.put("createdAt", com.google.firebase.Timestamp.now());
-        
-        db.collection("notifications")
-            .add(notificationData)
-            .addOnSuccessListener(documentReference -> {
-            })
-            .addOnFailureListener(e -> {
-            });
+        // The notifier queries for an explicit null; a missing field would never be pushed.
+        notificationData.put("dispatchStatus", null);
+        notificationData.put("createdAt", Timestamp.now());
+        return notificationData;
     }
 }
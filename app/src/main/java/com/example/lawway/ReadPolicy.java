@@ -0,0 +1,7 @@
+package com.example.lawway;
+
+public enum ReadPolicy {
+    CACHE_FIRST,
+    SERVER_ONLY,
+    CACHE_ONLY
+}
@@ -0,0 +1,98 @@
+package com.example.lawway;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+public class RequestAdapter extends ListAdapter<RequestItem, RequestAdapter.ViewHolder> {
+
+    private static final DiffUtil.ItemCallback<RequestItem> DIFF_CALLBACK = new DiffUtil.ItemCallback<RequestItem>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull RequestItem oldItem, @NonNull RequestItem newItem) {
+            return oldItem.requestId != null && oldItem.requestId.equals(newItem.requestId);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull RequestItem oldItem, @NonNull RequestItem newItem) {
+            return oldItem.equals(newItem);
+        }
+    };
+
+    private final LifecycleOwner owner;
+
+    public RequestAdapter(LifecycleOwner owner) {
+        super(DIFF_CALLBACK);
+        this.owner = owner;
+    }
+
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_request_card, parent, false);
+        return new ViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        RequestItem item = getItem(position);
+
+        holder.tvName.setText(item.name);
+        holder.tvStatus.setText(item.status);
+        if (item.status.equals("PENDING")) {
+            holder.tvStatus.setBackgroundResource(R.drawable.bg_status_pending);
+        } else if (item.status.equals("ACCEPTED")) {
+            holder.tvStatus.setBackgroundResource(R.drawable.bg_status_accepted);
+        } else {
+            holder.tvStatus.setBackgroundResource(R.drawable.bg_status_declined);
+        }
+        holder.tvSpecialty.setText(item.specialty);
+        holder.tvDescription.setText(item.description);
+
+        holder.llDate.setVisibility(item.date.isEmpty() ? View.GONE : View.VISIBLE);
+        holder.tvDate.setText(item.date);
+        holder.llDeclinedInfo.setVisibility(item.status.equals("DECLINED") ? View.VISIBLE : View.GONE);
+
+        holder.tvJoinChat.setVisibility(item.actionType.equals("join_chat") ? View.VISIBLE : View.GONE);
+        holder.tvFindAlternative.setVisibility(item.actionType.equals("find_alternative") ? View.VISIBLE : View.GONE);
+        holder.llViewDetails.setVisibility(item.actionType.equals("view_details") ? View.VISIBLE : View.GONE);
+
+        holder.ivAvatar.setImageResource(R.drawable.ic_profile_picture);
+        ImageLoader.getInstance().load(owner, item.profileImageUrl, holder.ivAvatar);
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull ViewHolder holder) {
+        super.onViewRecycled(holder);
+        ImageLoader.getInstance().cancel(holder.ivAvatar);
+    }
+
+    static class ViewHolder extends RecyclerView.ViewHolder {
+        final ImageView ivAvatar;
+        final TextView tvName, tvStatus, tvSpecialty, tvDescription, tvDate;
+        final TextView tvJoinChat, tvFindAlternative;
+        final View llDate, llDeclinedInfo, llViewDetails;
+
+        ViewHolder(View itemView) {
+            super(itemView);
+            ivAvatar = itemView.findViewById(R.id.ivAvatar);
+            tvName = itemView.findViewById(R.id.tvName);
+            tvStatus = itemView.findViewById(R.id.tvStatus);
+            tvSpecialty = itemView.findViewById(R.id.tvSpecialty);
+            tvDescription = itemView.findViewById(R.id.tvDescription);
+            tvDate = itemView.findViewById(R.id.tvDate);
+            tvJoinChat = itemView.findViewById(R.id.tvJoinChat);
+            tvFindAlternative = itemView.findViewById(R.id.tvFindAlternative);
+            llDate = itemView.findViewById(R.id.llDate);
+            llDeclinedInfo = itemView.findViewById(R.id.llDeclinedInfo);
+            llViewDetails = itemView.findViewById(R.id.llViewDetails);
+        }
+    }
+}
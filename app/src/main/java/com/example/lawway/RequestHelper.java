@@ -7,13 +7,18 @@ import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.WriteBatch;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class RequestHelper {
     private static final String COLLECTION_NAME = "requests";
-    private static final FirebaseFirestore db = FirebaseFirestore.getInstance();
+    private static final FirebaseFirestore db = FirestoreProvider.getInstance();
+    private static final String ACCEPTED_TITLE = "Request Accepted";
+    private static final String ACCEPTED_MESSAGE = "Your case request has been accepted by the lawyer";
+    private static ReadPolicy readPolicy = ReadPolicy.CACHE_FIRST;
 
     public static Task<DocumentReference> createRequest(Request request) {
         request.setStatus("pending");
@@ -33,14 +38,11 @@ public class RequestHelper {
     }
     
     private static void sendNewRequestNotification(String lawyerId, String clientId, String requestId) {
-        UserHelper.getUserById(clientId)
-            .addOnSuccessListener(clientDoc -> {
+        UserHelper.getUser(clientId)
+            .addOnSuccessListener(client -> {
                 String clientName = "A client";
-                if (clientDoc.exists()) {
-                    User client = UserHelper.documentToUser(clientDoc);
-                    if (client != null && client.getFullName() != null) {
-                        clientName = client.getFullName();
-                    }
+                if (client != null && client.getFullName() != null) {
+                    clientName = client.getFullName();
                 }
                 
                 String title = "New Request Received";
@@ -51,9 +53,11 @@ public class RequestHelper {
     }
 
     public static Task<DocumentSnapshot> getRequestById(String requestId) {
-        return db.collection(COLLECTION_NAME)
-                .document(requestId)
-                .get();
+        return getRequestById(requestId, readPolicy);
+    }
+
+    public static Task<DocumentSnapshot> getRequestById(String requestId, ReadPolicy policy) {
+        return FirestoreProvider.get(db.collection(COLLECTION_NAME).document(requestId), policy);
     }
 
     public static DocumentReference getRequestReference(String requestId) {
@@ -61,67 +65,73 @@ public class RequestHelper {
     }
 
     public static Task<QuerySnapshot> getRequestsByCaseId(String caseId) {
-        return db.collection(COLLECTION_NAME)
+        Query query = db.collection(COLLECTION_NAME)
                 .whereEqualTo("caseId", caseId)
                 .whereNotEqualTo("status", "deleted")
-                .orderBy("createdAt", Query.Direction.DESCENDING)
-                .get();
+                .orderBy("createdAt", Query.Direction.DESCENDING);
+        return FirestoreProvider.get(query, readPolicy);
     }
 
     public static Task<QuerySnapshot> getPendingRequestsByLawyerId(String lawyerId) {
-        return db.collection(COLLECTION_NAME)
+        Query query = db.collection(COLLECTION_NAME)
                 .whereEqualTo("lawyerId", lawyerId)
                 .whereEqualTo("status", "pending")
-                .orderBy("createdAt", Query.Direction.DESCENDING)
-                .get();
+                .orderBy("createdAt", Query.Direction.DESCENDING);
+        return FirestoreProvider.get(query, readPolicy);
     }
 
     public static Task<QuerySnapshot> getRequestsByLawyerId(String lawyerId) {
-        return db.collection(COLLECTION_NAME)
+        Query query = db.collection(COLLECTION_NAME)
                 .whereEqualTo("lawyerId", lawyerId)
                 .whereNotEqualTo("status", "deleted")
                 .orderBy("status")
-                .orderBy("createdAt", Query.Direction.DESCENDING)
-                .get();
+                .orderBy("createdAt", Query.Direction.DESCENDING);
+        return FirestoreProvider.get(query, readPolicy);
     }
 
-    public static Task<QuerySnapshot> getAcceptedRequestsByLawyerId(String lawyerId) {
+    static Query requestsByParticipantQuery(String field, String userId) {
         return db.collection(COLLECTION_NAME)
+                .whereEqualTo(field, userId)
+                .orderBy("createdAt", Query.Direction.DESCENDING);
+    }
+
+    public static Task<QuerySnapshot> getAcceptedRequestsByLawyerId(String lawyerId) {
+        Query query = db.collection(COLLECTION_NAME)
                 .whereEqualTo("lawyerId", lawyerId)
                 .whereEqualTo("status", "accepted")
-                .orderBy("createdAt", Query.Direction.DESCENDING)
-                .get();
+                .orderBy("createdAt", Query.Direction.DESCENDING);
+        return FirestoreProvider.get(query, readPolicy);
     }
 
     public static Task<QuerySnapshot> getRequestsByClientId(String clientId) {
-        return db.collection(COLLECTION_NAME)
+        Query query = db.collection(COLLECTION_NAME)
                 .whereEqualTo("clientId", clientId)
                 .whereNotEqualTo("status", "deleted")
                 .orderBy("status")
-                .orderBy("createdAt", Query.Direction.DESCENDING)
-                .get();
+                .orderBy("createdAt", Query.Direction.DESCENDING);
+        return FirestoreProvider.get(query, readPolicy);
     }
 
     public static Task<QuerySnapshot> getRequestsByStatus(String status) {
-        return db.collection(COLLECTION_NAME)
+        Query query = db.collection(COLLECTION_NAME)
                 .whereEqualTo("status", status)
-                .orderBy("createdAt", Query.Direction.DESCENDING)
-                .get();
+                .orderBy("createdAt", Query.Direction.DESCENDING);
+        return FirestoreProvider.get(query, readPolicy);
     }
 
     public static Task<QuerySnapshot> getRequestByCaseAndLawyer(String caseId, String lawyerId) {
-        return db.collection(COLLECTION_NAME)
+        Query query = db.collection(COLLECTION_NAME)
                 .whereEqualTo("caseId", caseId)
                 .whereEqualTo("lawyerId", lawyerId)
-                .whereNotEqualTo("status", "deleted")
-                .get();
+                .whereNotEqualTo("status", "deleted");
+        return FirestoreProvider.get(query, readPolicy);
     }
 
     public static Task<QuerySnapshot> getAllRequests() {
-        return db.collection(COLLECTION_NAME)
+        Query query = db.collection(COLLECTION_NAME)
                 .whereNotEqualTo("status", "deleted")
-                .orderBy("createdAt", Query.Direction.DESCENDING)
-                .get();
+                .orderBy("createdAt", Query.Direction.DESCENDING);
+        return FirestoreProvider.get(query, readPolicy);
     }
 
     public static Task<Void> updateRequest(String requestId, Map<String, Object> updates) {
@@ -141,51 +151,51 @@ public class RequestHelper {
                 .update(updates);
     }
 
-    public static Task<Void> acceptRequest(String requestId) {
+    public static Task<Void> acceptRequest(Request request) {
+        return acceptRequest(request.getRequestId(), request.getClientId());
+    }
+
+    public static Task<Void> acceptRequest(String requestId, String clientId) {
+        WriteBatch batch = db.batch();
+        addAcceptWrites(batch, requestId, clientId);
+        return batch.commit();
+    }
+
+    static void addAcceptWrites(WriteBatch batch, String requestId, String clientId) {
         Map<String, Object> updates = new HashMap<>();
         updates.put("status", "accepted");
         updates.put("respondedAt", Timestamp.now());
-        
-        Task<Void> task = db.collection(COLLECTION_NAME)
-                .document(requestId)
-                .update(updates);
-        
-        task.addOnSuccessListener(aVoid -> {
-            getRequestById(requestId)
-                .addOnSuccessListener(requestDoc -> {
-                    if (requestDoc.exists()) {
-                        Request request = documentToRequest(requestDoc);
-                        if (request != null && request.getClientId() != null) {
-                            sendAcceptedNotification(request.getClientId(), requestId);
-                        }
-                    }
-                });
-        });
-        
-        return task;
-    }
-    
-    private static void sendAcceptedNotification(String clientId, String requestId) {
-        UserHelper.getUserById(clientId)
-            .addOnSuccessListener(clientDoc -> {
-                String title = "Request Accepted";
-                String message = "Your case request has been accepted by the lawyer";
-                
-                NotificationHelper.sendNotificationToUser(clientId, title, message, requestId, "Client");
-            });
+
+        batch.update(db.collection(COLLECTION_NAME).document(requestId), updates);
+        if (clientId != null) {
+            batch.set(NotificationHelper.newNotificationReference(),
+                    NotificationHelper.buildNotificationData(clientId, ACCEPTED_TITLE, ACCEPTED_MESSAGE, requestId, "Client"));
+        }
     }
 
     public static Task<Void> rejectRequest(String requestId, String rejectedReason) {
+        WriteBatch batch = db.batch();
+        addRejectWrites(batch, requestId, rejectedReason);
+        return batch.commit();
+    }
+
+    static void addRejectWrites(WriteBatch batch, String requestId, String rejectedReason) {
         Map<String, Object> updates = new HashMap<>();
         updates.put("status", "rejected");
         updates.put("respondedAt", Timestamp.now());
         if (rejectedReason != null && !rejectedReason.isEmpty()) {
             updates.put("rejectedReason", rejectedReason);
         }
-        
-        return db.collection(COLLECTION_NAME)
-                .document(requestId)
-                .update(updates);
+
+        batch.update(db.collection(COLLECTION_NAME).document(requestId), updates);
+    }
+
+    public static Task<BulkRequestWriter.Result> acceptRequests(List<Request> requests) {
+        return BulkRequestWriter.accept(db, requests);
+    }
+
+    public static Task<BulkRequestWriter.Result> rejectRequests(List<String> requestIds, String rejectedReason) {
+        return BulkRequestWriter.reject(db, requestIds, rejectedReason);
     }
 
     public static Task<Void> updateRequestStatus(String requestId, String status) {
@@ -215,6 +225,10 @@ public class RequestHelper {
                 .delete();
     }
 
+    public static void setReadPolicy(ReadPolicy policy) {
+        readPolicy = policy;
+    }
+
     private static Map<String, Object> requestToMap(Request request) {
         Map<String, Object> map = new HashMap<>();
         if (request.getRequestId() != null) map.put("requestId", request.getRequestId());
@@ -0,0 +1,46 @@
+package com.example.lawway;
+
+import java.util.Objects;
+
+public class RequestItem {
+    final String name;
+    final String specialty;
+    final String description;
+    final String status;
+    final String date;
+    final String actionType;
+    final String profileImageUrl;
+    final String requestId;
+
+    RequestItem(String name, String specialty, String description, String status,
+               String date, String actionType, String profileImageUrl, String requestId) {
+        this.name = name;
+        this.specialty = specialty;
+        this.description = description;
+        this.status = status;
+        this.date = date;
+        this.actionType = actionType;
+        this.profileImageUrl = profileImageUrl;
+        this.requestId = requestId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RequestItem)) return false;
+        RequestItem other = (RequestItem) o;
+        return Objects.equals(name, other.name)
+                && Objects.equals(specialty, other.specialty)
+                && Objects.equals(description, other.description)
+                && Objects.equals(status, other.status)
+                && Objects.equals(date, other.date)
+                && Objects.equals(actionType, other.actionType)
+                && Objects.equals(profileImageUrl, other.profileImageUrl)
+                && Objects.equals(requestId, other.requestId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, specialty, description, status, date, actionType, profileImageUrl, requestId);
+    }
+}
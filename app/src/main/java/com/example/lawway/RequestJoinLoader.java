@@ -0,0 +1,72 @@
+package com.example.lawway;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class RequestJoinLoader {
+
+    public static Task<List<JoinedRequest>> loadWithClients(List<Request> requests) {
+        return load(requests, false);
+    }
+
+    public static Task<List<JoinedRequest>> loadWithLawyers(List<Request> requests) {
+        return load(requests, true);
+    }
+
+    private static Task<List<JoinedRequest>> load(List<Request> requests, boolean joinLawyer) {
+        List<String> userIds = new ArrayList<>();
+        List<String> caseIds = new ArrayList<>();
+        for (Request request : requests) {
+            userIds.add(joinLawyer ? request.getLawyerId() : request.getClientId());
+            caseIds.add(request.getCaseId());
+        }
+
+        Task<Map<String, User>> usersTask = UserHelper.getUsersByIds(userIds)
+                .continueWith(task -> task.isSuccessful() ? task.getResult() : new HashMap<String, User>());
+        Task<Map<String, Case>> casesTask = CaseHelper.getCasesByIds(caseIds)
+                .continueWith(task -> task.isSuccessful() ? task.getResult() : new HashMap<String, Case>());
+
+        return Tasks.whenAllComplete(usersTask, casesTask).continueWith(task -> {
+            Map<String, User> users = usersTask.getResult();
+            Map<String, Case> cases = casesTask.getResult();
+
+            List<JoinedRequest> rows = new ArrayList<>();
+            for (Request request : requests) {
+                String userId = joinLawyer ? request.getLawyerId() : request.getClientId();
+                User user = userId != null ? users.get(userId) : null;
+                Case caseObj = request.getCaseId() != null ? cases.get(request.getCaseId()) : null;
+                rows.add(new JoinedRequest(request, user, caseObj));
+            }
+            return rows;
+        });
+    }
+
+    public static class JoinedRequest {
+        private final Request request;
+        private final User counterpart;
+        private final Case caseObj;
+
+        JoinedRequest(Request request, User counterpart, Case caseObj) {
+            this.request = request;
+            this.counterpart = counterpart;
+            this.caseObj = caseObj;
+        }
+
+        public Request getRequest() {
+            return request;
+        }
+
+        public User getCounterpart() {
+            return counterpart;
+        }
+
+        public Case getCase() {
+            return caseObj;
+        }
+    }
+}
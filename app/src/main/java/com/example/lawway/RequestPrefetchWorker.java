@@ -0,0 +1,115 @@
+package com.example.lawway;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.Data;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/** Warms the local caches for the request named in a push message. */
+public class RequestPrefetchWorker extends Worker {
+    private static final String TAG = "RequestPrefetchWorker";
+    private static final String KEY_REQUEST_ID = "requestId";
+    private static final String KEY_CLIENT_ID = "clientId";
+    private static final String KEY_LAWYER_ID = "lawyerId";
+    private static final String KEY_CASE_ID = "caseId";
+    private static final String KEY_USER_TYPE = "userType";
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long TIMEOUT_SECONDS = 20;
+
+    public RequestPrefetchWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /** Schedules a prefetch from the data of an FCM message; does nothing without a requestId. */
+    public static void enqueue(Context context, Map<String, String> payload) {
+        String requestId = payload.get(KEY_REQUEST_ID);
+        if (requestId == null || requestId.isEmpty()) {
+            return;
+        }
+        Data input = new Data.Builder()
+            .putString(KEY_REQUEST_ID, requestId)
+            .putString(KEY_CLIENT_ID, payload.get(KEY_CLIENT_ID))
+            .putString(KEY_LAWYER_ID, payload.get(KEY_LAWYER_ID))
+            .putString(KEY_CASE_ID, payload.get(KEY_CASE_ID))
+            .putString(KEY_USER_TYPE, payload.get(KEY_USER_TYPE))
+            .build();
+        OneTimeWorkRequest work = new OneTimeWorkRequest.Builder(RequestPrefetchWorker.class)
+            .setInputData(input)
+            .setConstraints(new Constraints.Builder().setRequiredNetworkType(NetworkType.CONNECTED).build())
+            .build();
+        WorkManager.getInstance(context)
+            .enqueueUniqueWork("prefetch_request_" + requestId, ExistingWorkPolicy.KEEP, work);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Data input = getInputData();
+        String requestId = input.getString(KEY_REQUEST_ID);
+        if (requestId == null) {
+            return Result.failure();
+        }
+        boolean viewerIsLawyer = "Lawyer".equals(input.getString(KEY_USER_TYPE));
+
+        try {
+            // The payload summary lets the user and case reads start alongside the request
+            // read instead of waiting for it.
+            List<Task<?>> reads = new ArrayList<>();
+            Task<DocumentSnapshot> requestTask = RequestHelper.getRequestById(requestId, ReadPolicy.SERVER_ONLY);
+            reads.add(requestTask);
+            String counterpartId = input.getString(viewerIsLawyer ? KEY_CLIENT_ID : KEY_LAWYER_ID);
+            String caseId = input.getString(KEY_CASE_ID);
+            addJoinReads(reads, counterpartId, caseId);
+            Tasks.await(Tasks.whenAllComplete(reads), TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+            if (!requestTask.isSuccessful()) {
+                throw requestTask.getException() != null ? requestTask.getException() : new IllegalStateException("Request read failed");
+            }
+            Request request = RequestHelper.documentToRequest(requestTask.getResult());
+            if (request == null) {
+                return Result.success();
+            }
+
+            // Older payloads carry only the request id; join from the fetched request instead.
+            List<Task<?>> joins = new ArrayList<>();
+            String fetchedCounterpart = viewerIsLawyer ? request.getClientId() : request.getLawyerId();
+            addJoinReads(joins,
+                counterpartId == null ? fetchedCounterpart : null,
+                caseId == null ? request.getCaseId() : null);
+            if (!joins.isEmpty()) {
+                Tasks.await(Tasks.whenAllComplete(joins), TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            }
+            return Result.success();
+        } catch (Exception e) {
+            Log.w(TAG, "Prefetch of request " + requestId + " failed", e);
+            return getRunAttemptCount() + 1 < MAX_ATTEMPTS ? Result.retry() : Result.failure();
+        }
+    }
+
+    private static void addJoinReads(List<Task<?>> reads, String userId, String caseId) {
+        if (userId != null && !userId.isEmpty()) {
+            reads.add(UserHelper.getUsersByIds(Collections.singletonList(userId)));
+        }
+        if (caseId != null && !caseId.isEmpty()) {
+            reads.add(CaseHelper.getCasesByIds(Collections.singletonList(caseId)));
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.lawway;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/** Remembers which notification keys have been shown, using a recent-id ring and two rotating Bloom filters. */
+public class SeenIdStore {
+    private static final String TAG = "SeenIdStore";
+    private static final String FILE_NAME = "seen_ids.bin";
+    private static final String LEGACY_PREFS = "notifications";
+    private static final int MAGIC = 0x5345454E;
+    private static final int VERSION = 1;
+
+    private static final int FILTER_BITS = 1 << 17;
+    static final int FILTER_WORDS = FILTER_BITS / 64;
+    private static final int HASHES = 5;
+    static final int ROTATE_AFTER = 4000;
+    private static final int WINDOW_SIZE = 512;
+    private static final long SAVE_DELAY_MS = 1000;
+
+    private static SeenIdStore instance;
+
+    private final File file;
+    private final Context context;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private long[] current = new long[FILTER_WORDS];
+    private long[] previous = new long[FILTER_WORDS];
+    private int currentCount;
+    private final long[] window = new long[WINDOW_SIZE];
+    private final Set<Long> windowSet = new HashSet<>();
+    private int windowPosition;
+    private int windowCount;
+    private boolean saveScheduled;
+
+    public interface Callback {
+        void onResult(boolean isNew);
+    }
+
+    public static synchronized SeenIdStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new SeenIdStore(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private SeenIdStore(Context context) {
+        this.context = context;
+        this.file = new File(context.getFilesDir(), FILE_NAME);
+        executor.execute(this::load);
+    }
+
+    /** Records {@code key} and reports on the main thread whether it had not been seen before. */
+    public void markIfNew(String key, Callback callback) {
+        executor.execute(() -> {
+            boolean isNew = mark(key);
+            if (callback != null) {
+                mainHandler.post(() -> callback.onResult(isNew));
+            }
+        });
+    }
+
+    /** Blocking form of {@link #markIfNew(String, Callback)}; must not be called on the main thread. */
+    public boolean markIfNew(String key) {
+        try {
+            return executor.submit(() -> mark(key)).get();
+        } catch (ExecutionException e) {
+            Log.w(TAG, "Seen check failed for " + key, e.getCause());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return true;
+        }
+    }
+
+    private boolean mark(String key) {
+        boolean isNew = insert(hash(key));
+        if (isNew) {
+            scheduleSave();
+        }
+        return isNew;
+    }
+
+    private boolean contains(long hash) {
+        return windowSet.contains(hash) || mightContain(current, hash) || mightContain(previous, hash);
+    }
+
+    private boolean insert(long hash) {
+        if (contains(hash)) {
+            return false;
+        }
+        if (windowCount == WINDOW_SIZE) {
+            windowSet.remove(window[windowPosition]);
+        } else {
+            windowCount++;
+        }
+        window[windowPosition] = hash;
+        windowSet.add(hash);
+        windowPosition = (windowPosition + 1) % WINDOW_SIZE;
+
+        if (currentCount >= ROTATE_AFTER) {
+            previous = current;
+            current = new long[FILTER_WORDS];
+            currentCount = 0;
+        }
+        setBits(current, hash);
+        currentCount++;
+        return true;
+    }
+
+    static boolean mightContain(long[] filter, long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < HASHES; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % FILTER_BITS;
+            if ((filter[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static void setBits(long[] filter, long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < HASHES; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % FILTER_BITS;
+            filter[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        // FNV alone leaves the high word poorly mixed for short keys; finish with murmur's fmix64.
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private void load() {
+        if (file.exists()) {
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                    throw new IOException("Unrecognised seen-id file");
+                }
+                currentCount = input.readInt();
+                windowPosition = input.readInt();
+                windowCount = input.readInt();
+                for (int i = 0; i < FILTER_WORDS; i++) {
+                    current[i] = input.readLong();
+                }
+                for (int i = 0; i < FILTER_WORDS; i++) {
+                    previous[i] = input.readLong();
+                }
+                for (int i = 0; i < WINDOW_SIZE; i++) {
+                    window[i] = input.readLong();
+                }
+                for (int i = 0; i < windowCount; i++) {
+                    windowSet.add(window[(windowPosition - 1 - i + WINDOW_SIZE) % WINDOW_SIZE]);
+                }
+            } catch (IOException e) {
+                Log.w(TAG, "Starting with an empty seen-id set", e);
+                reset();
+            }
+        }
+        migrateLegacyPrefs();
+    }
+
+    private void migrateLegacyPrefs() {
+        SharedPreferences prefs = context.getSharedPreferences(LEGACY_PREFS, Context.MODE_PRIVATE);
+        Map<String, ?> legacy = prefs.getAll();
+        if (legacy.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<String, ?> entry : legacy.entrySet()) {
+            if (Boolean.TRUE.equals(entry.getValue())) {
+                insert(hash(entry.getKey()));
+            }
+        }
+        // Save before clearing so a crash in between can only repeat the migration.
+        save();
+        prefs.edit().clear().commit();
+        Log.d(TAG, "Migrated " + legacy.size() + " keys from SharedPreferences");
+    }
+
+    private void reset() {
+        current = new long[FILTER_WORDS];
+        previous = new long[FILTER_WORDS];
+        currentCount = 0;
+        windowSet.clear();
+        windowPosition = 0;
+        windowCount = 0;
+    }
+
+    private void scheduleSave() {
+        if (saveScheduled) {
+            return;
+        }
+        saveScheduled = true;
+        executor.schedule(() -> {
+            saveScheduled = false;
+            save();
+        }, SAVE_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private void save() {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(currentCount);
+            output.writeInt(windowPosition);
+            output.writeInt(windowCount);
+            for (long word : current) {
+                output.writeLong(word);
+            }
+            for (long word : previous) {
+                output.writeLong(word);
+            }
+            for (long entry : window) {
+                output.writeLong(entry);
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to save seen ids", e);
+            return;
+        }
+        if (!tmp.renameTo(file)) {
+            Log.e(TAG, "Failed to replace " + file);
+        }
+    }
+}
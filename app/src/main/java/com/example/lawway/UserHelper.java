@@ -1,19 +1,26 @@
 package com.example.lawway;
 
 import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.Timestamp;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QuerySnapshot;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class UserHelper {
     private static final String COLLECTION_NAME = "users";
-    private static final FirebaseFirestore db = FirebaseFirestore.getInstance();
+    private static final FirebaseFirestore db = FirestoreProvider.getInstance();
+    private static ReadPolicy readPolicy = ReadPolicy.CACHE_FIRST;
+    private static final EntityCache<User> userCache = new EntityCache<>(200, 10 * 60 * 1000L);
 
     public static Task<DocumentReference> createUser(User user) {
         Map<String, Object> userData = userToMap(user);
@@ -28,59 +35,114 @@ public class UserHelper {
         Map<String, Object> userData = userToMap(user);
         userData.put("createdAt", Timestamp.now());
         
+        userCache.invalidate(userId);
         return db.collection(COLLECTION_NAME)
                 .document(userId)
                 .set(userData);
     }
 
     public static Task<DocumentSnapshot> getUserById(String userId) {
-        return db.collection(COLLECTION_NAME)
-                .document(userId)
-                .get();
+        return getUserById(userId, readPolicy);
+    }
+
+    public static Task<DocumentSnapshot> getUserById(String userId, ReadPolicy policy) {
+        return FirestoreProvider.get(db.collection(COLLECTION_NAME).document(userId), policy);
+    }
+
+    public static Task<User> getUser(String userId) {
+        return userCache.get(userId, id -> getUserById(id).continueWith(task -> documentToUser(task.getResult())));
+    }
+
+    public static User getCachedUser(String userId) {
+        return userCache.getIfPresent(userId);
+    }
+
+    public static EntityCache<User> getUserCache() {
+        return userCache;
     }
 
     public static DocumentReference getUserReference(String userId) {
         return db.collection(COLLECTION_NAME).document(userId);
     }
 
+    public static Task<Map<String, User>> getUsersByIds(Collection<String> userIds) {
+        Map<String, User> cached = new HashMap<>();
+        List<String> ids = new ArrayList<>();
+        for (String id : BatchQueryHelper.distinctIds(userIds)) {
+            User user = userCache.getIfPresent(id);
+            if (user != null) {
+                cached.put(id, user);
+            } else {
+                ids.add(id);
+            }
+        }
+        if (ids.isEmpty()) {
+            return Tasks.forResult(cached);
+        }
+
+        List<Task<QuerySnapshot>> tasks = new ArrayList<>();
+        for (List<String> chunk : BatchQueryHelper.chunk(ids, BatchQueryHelper.MAX_WHERE_IN)) {
+            Query query = db.collection(COLLECTION_NAME).whereIn(FieldPath.documentId(), chunk);
+            tasks.add(FirestoreProvider.get(query, readPolicy, chunk.size()));
+        }
+
+        return Tasks.whenAllComplete(tasks).continueWith(task -> {
+            Map<String, User> users = new HashMap<>(cached);
+            for (Task<QuerySnapshot> chunkTask : tasks) {
+                if (!chunkTask.isSuccessful() || chunkTask.getResult() == null) {
+                    continue;
+                }
+                for (DocumentSnapshot document : chunkTask.getResult().getDocuments()) {
+                    User user = documentToUser(document);
+                    if (user != null) {
+                        userCache.put(user.getUserId(), user);
+                        users.put(user.getUserId(), user);
+                    }
+                }
+            }
+            return users;
+        });
+    }
+
     public static Task<QuerySnapshot> getAllUsers() {
-        return db.collection(COLLECTION_NAME)
-                .get();
+        Query query = db.collection(COLLECTION_NAME);
+        return FirestoreProvider.get(query, readPolicy);
     }
 
     public static Task<QuerySnapshot> getAllLawyers() {
-        return db.collection(COLLECTION_NAME)
+        Query query = db.collection(COLLECTION_NAME)
                 .whereEqualTo("userType", "Lawyer")
-                .whereNotEqualTo("status", "deleted")
-                .get();
+                .whereNotEqualTo("status", "deleted");
+        return FirestoreProvider.get(query, readPolicy);
     }
 
     public static Task<QuerySnapshot> getAllClients() {
-        return db.collection(COLLECTION_NAME)
+        Query query = db.collection(COLLECTION_NAME)
                 .whereEqualTo("userType", "Client")
-                .whereNotEqualTo("status", "deleted")
-                .get();
+                .whereNotEqualTo("status", "deleted");
+        return FirestoreProvider.get(query, readPolicy);
     }
 
     public static Task<QuerySnapshot> getLawyersBySpecialization(String specialization) {
-        return db.collection(COLLECTION_NAME)
+        Query query = db.collection(COLLECTION_NAME)
                 .whereEqualTo("userType", "Lawyer")
                 .whereEqualTo("specialization", specialization)
-                .whereNotEqualTo("status", "deleted")
-                .get();
+                .whereNotEqualTo("status", "deleted");
+        return FirestoreProvider.get(query, readPolicy);
     }
 
     public static Task<QuerySnapshot> searchLawyersByName(String searchQuery) {
-        return db.collection(COLLECTION_NAME)
+        Query query = db.collection(COLLECTION_NAME)
                 .whereEqualTo("userType", "Lawyer")
                 .whereGreaterThanOrEqualTo("fullName", searchQuery)
                 .whereLessThanOrEqualTo("fullName", searchQuery + "\uf8ff")
-                .whereNotEqualTo("status", "deleted")
-                .get();
+                .whereNotEqualTo("status", "deleted");
+        return FirestoreProvider.get(query, readPolicy);
     }
 
     public static Task<Void> updateUser(String userId, Map<String, Object> updates) {
         updates.put("updatedAt", Timestamp.now());
+        userCache.invalidate(userId);
         return db.collection(COLLECTION_NAME)
                 .document(userId)
                 .update(updates);
@@ -91,6 +153,7 @@ public class UserHelper {
         updates.remove("userId");
         updates.put("updatedAt", Timestamp.now());
         
+        userCache.invalidate(userId);
         return db.collection(COLLECTION_NAME)
                 .document(userId)
                 .update(updates);
@@ -102,6 +165,7 @@ public class UserHelper {
         updates.put("experience", experience);
         updates.put("updatedAt", Timestamp.now());
         
+        userCache.invalidate(userId);
         return db.collection(COLLECTION_NAME)
                 .document(userId)
                 .update(updates);
@@ -113,6 +177,7 @@ public class UserHelper {
         if (phone != null) updates.put("phone", phone);
         updates.put("updatedAt", Timestamp.now());
         
+        userCache.invalidate(userId);
         return db.collection(COLLECTION_NAME)
                 .document(userId)
                 .update(updates);
@@ -124,17 +189,23 @@ public class UserHelper {
         updates.put("deletedAt", Timestamp.now());
         updates.put("updatedAt", Timestamp.now());
         
+        userCache.invalidate(userId);
         return db.collection(COLLECTION_NAME)
                 .document(userId)
                 .update(updates);
     }
 
     public static Task<Void> hardDeleteUser(String userId) {
+        userCache.invalidate(userId);
         return db.collection(COLLECTION_NAME)
                 .document(userId)
                 .delete();
     }
 
+    public static void setReadPolicy(ReadPolicy policy) {
+        readPolicy = policy;
+    }
+
     private static Map<String, Object> userToMap(User user) {
         Map<String, Object> map = new HashMap<>();
         if (user.getUserId() != null) map.put("userId", user.getUserId());
@@ -187,6 +258,7 @@ public class UserHelper {
         updates.put("fcmToken", fcmToken);
         updates.put("updatedAt", Timestamp.now());
         
+        userCache.invalidate(userId);
         return db.collection(COLLECTION_NAME)
                 .document(userId)
                 .update(updates);
@@ -0,0 +1,38 @@
+package com.example.lawway;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.junit.Assert.assertEquals;
+
+public class CalendarEngineTest {
+    private static final LocalDate FIRST = LocalDate.of(1890, 1, 1);
+    private static final LocalDate LAST = LocalDate.of(2200, 12, 31);
+
+    @Test
+    public void epochDayMatchesLocalDate() {
+        for (LocalDate date = FIRST; !date.isAfter(LAST); date = date.plusDays(1)) {
+            assertEquals(date.toString(), date.toEpochDay(),
+                    CalendarEngine.epochDay(date.getYear(), date.getMonthValue(), date.getDayOfMonth()));
+        }
+    }
+
+    @Test
+    public void dayOfWeekMatchesLocalDate() {
+        for (LocalDate date = FIRST; !date.isAfter(LAST); date = date.plusDays(1)) {
+            // java.time counts Monday = 1 ... Sunday = 7; the engine uses Sunday = 0.
+            assertEquals(date.toString(), date.getDayOfWeek().getValue() % 7, CalendarEngine.dayOfWeek(date.toEpochDay()));
+        }
+    }
+
+    @Test
+    public void daysInMonthMatchesYearMonth() {
+        for (int year = FIRST.getYear(); year <= LAST.getYear(); year++) {
+            for (int month = 1; month <= 12; month++) {
+                assertEquals(year + "-" + month, YearMonth.of(year, month).lengthOfMonth(), CalendarEngine.daysInMonth(year, month));
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.lawway;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class EntityCacheTest {
+
+    @Test
+    public void evictsTheLeastRecentlyUsedEntry() {
+        EntityCache<String> cache = new EntityCache<>(2, 60_000);
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.getIfPresent("a");
+        cache.put("c", "C");
+
+        assertEquals("A", cache.getIfPresent("a"));
+        assertNull(cache.getIfPresent("b"));
+        assertEquals("C", cache.getIfPresent("c"));
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void expiredEntriesAreDropped() {
+        EntityCache<String> cache = new EntityCache<>(10, 0);
+        cache.put("a", "A");
+        assertNull(cache.getIfPresent("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void cachedValuesAreServedWithoutLoading() {
+        EntityCache<String> cache = new EntityCache<>(10, 60_000);
+        cache.put("a", "A");
+        AtomicInteger loads = new AtomicInteger();
+
+        Task<String> task = cache.get("a", id -> {
+            loads.incrementAndGet();
+            return new TaskCompletionSource<String>().getTask();
+        });
+
+        assertEquals("A", task.getResult());
+        assertEquals(0, loads.get());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void concurrentMissesShareOneLoad() {
+        EntityCache<String> cache = new EntityCache<>(10, 60_000);
+        TaskCompletionSource<String> source = new TaskCompletionSource<>();
+        AtomicInteger loads = new AtomicInteger();
+        EntityCache.Loader<String> loader = id -> {
+            loads.incrementAndGet();
+            return source.getTask();
+        };
+
+        Task<String> first = cache.get("a", loader);
+        Task<String> second = cache.get("a", loader);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getCoalescedCount());
+    }
+
+    @Test
+    public void finishedLoadsLeaveNothingInFlight() {
+        EntityCache<String> cache = new EntityCache<>(10, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+        EntityCache.Loader<String> failing = id -> {
+            loads.incrementAndGet();
+            TaskCompletionSource<String> source = new TaskCompletionSource<>();
+            source.setException(new IllegalStateException("offline"));
+            return source.getTask();
+        };
+
+        Task<String> first = cache.get("a", failing);
+        Task<String> second = cache.get("a", failing);
+
+        assertNotSame(first, second);
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.getCoalescedCount());
+    }
+
+    @Test
+    public void nullValuesAreNotStored() {
+        EntityCache<String> cache = new EntityCache<>(10, 60_000);
+        cache.put("a", null);
+        cache.put(null, "A");
+        assertEquals(0, cache.size());
+    }
+}
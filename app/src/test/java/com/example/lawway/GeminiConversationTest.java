@@ -0,0 +1,107 @@
+package com.example.lawway;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GeminiConversationTest {
+    private static final String SYSTEM = "You are Lexi.";
+
+    @Test
+    public void shortConversationIsSentWhole() {
+        GeminiConversation conversation = new GeminiConversation(SYSTEM, 1000);
+        conversation.addUserTurn("Hello");
+        conversation.addModelTurn("Hi, how can I help?");
+        conversation.addUserTurn("What is an affidavit?");
+
+        GeminiRequest request = conversation.buildRequest();
+        assertEquals(3, request.getContents().size());
+        assertEquals(0, conversation.getEvictedTurnCount());
+        assertEquals(SYSTEM, text(request.getSystemInstruction()));
+    }
+
+    @Test
+    public void evictionKeepsTheRequestWithinBudget() {
+        GeminiConversation conversation = new GeminiConversation(SYSTEM, 200);
+        for (int i = 0; i < 10; i++) {
+            conversation.addUserTurn("Question " + i + " " + repeat("word ", 30));
+            conversation.addModelTurn("Answer " + i + " " + repeat("word ", 30));
+        }
+        conversation.addUserTurn("Latest question");
+
+        GeminiRequest request = conversation.buildRequest();
+        List<GeminiRequest.Content> contents = request.getContents();
+        assertTrue(conversation.estimateRequestTokens() <= 200);
+        assertTrue(conversation.getEvictedTurnCount() > 0);
+        assertEquals(GeminiConversation.ROLE_USER, contents.get(0).getRole());
+        assertEquals("Latest question", text(contents.get(contents.size() - 1)));
+        assertTrue(text(request.getSystemInstruction()).contains("Summary of the earlier conversation:"));
+    }
+
+    @Test
+    public void turnBeingAnsweredIsNeverEvicted() {
+        GeminiConversation conversation = new GeminiConversation(SYSTEM, 10);
+        conversation.addUserTurn(repeat("long ", 100));
+
+        GeminiRequest request = conversation.buildRequest();
+        assertEquals(1, request.getContents().size());
+        assertEquals(0, conversation.getEvictedTurnCount());
+    }
+
+    @Test
+    public void discardPendingUserTurnOnlyRemovesAUserTurn() {
+        GeminiConversation conversation = new GeminiConversation(SYSTEM);
+        conversation.addUserTurn("Question");
+        conversation.addModelTurn("Answer");
+        conversation.discardPendingUserTurn();
+        assertEquals(2, conversation.getTurnCount());
+
+        conversation.addUserTurn("Unanswered");
+        conversation.discardPendingUserTurn();
+        assertEquals(2, conversation.getTurnCount());
+    }
+
+    @Test
+    public void referenceMaterialIsAddedToTheSystemInstruction() {
+        GeminiConversation conversation = new GeminiConversation(SYSTEM);
+        conversation.addUserTurn("Question");
+        conversation.setReferenceMaterial("Q: a\nA: b");
+        String instruction = text(conversation.buildRequest().getSystemInstruction());
+        assertTrue(instruction.startsWith(SYSTEM));
+        assertTrue(instruction.contains("Q: a\nA: b"));
+
+        conversation.clear();
+        conversation.addUserTurn("Question");
+        assertEquals(SYSTEM, text(conversation.buildRequest().getSystemInstruction()));
+    }
+
+    @Test
+    public void estimateTokensRoundsUp() {
+        assertEquals(0, GeminiConversation.estimateTokens(null));
+        assertEquals(0, GeminiConversation.estimateTokens(""));
+        assertEquals(1, GeminiConversation.estimateTokens("abc"));
+        assertEquals(2, GeminiConversation.estimateTokens("abcde"));
+    }
+
+    private static String text(GeminiRequest.Content content) {
+        if (content == null) {
+            return null;
+        }
+        StringBuilder builder = new StringBuilder();
+        for (GeminiRequest.Content.Part part : content.getParts()) {
+            builder.append(part.getText());
+        }
+        return builder.toString();
+    }
+
+    private static String repeat(String text, int count) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            builder.append(text);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.lawway;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import okio.Buffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+
+public class GeminiJsonCodecTest {
+
+    @Test
+    public void writeProducesTheGeminiRequestShape() throws IOException {
+        GeminiRequest request = new GeminiRequest(Arrays.asList(
+                new GeminiRequest.Content(GeminiConversation.ROLE_USER, "Hi \"Lexi\""),
+                new GeminiRequest.Content(GeminiConversation.ROLE_MODEL, "Hello")),
+                "Be brief.");
+
+        JsonObject json = JsonParser.parseString(write(request)).getAsJsonObject();
+        JsonArray contents = json.getAsJsonArray("contents");
+        assertEquals(2, contents.size());
+        assertEquals("user", contents.get(0).getAsJsonObject().get("role").getAsString());
+        assertEquals("Hi \"Lexi\"", contents.get(0).getAsJsonObject().getAsJsonArray("parts")
+                .get(0).getAsJsonObject().get("text").getAsString());
+        JsonObject system = json.getAsJsonObject("systemInstruction");
+        assertFalse(system.has("role"));
+        assertEquals("Be brief.", system.getAsJsonArray("parts").get(0).getAsJsonObject().get("text").getAsString());
+    }
+
+    @Test
+    public void writeOmitsAMissingSystemInstruction() throws IOException {
+        JsonObject json = JsonParser.parseString(write(new GeminiRequest("Hi"))).getAsJsonObject();
+        assertFalse(json.has("systemInstruction"));
+        assertFalse(json.getAsJsonArray("contents").get(0).getAsJsonObject().has("role"));
+    }
+
+    @Test
+    public void digestDependsOnContent() throws IOException {
+        assertEquals(GeminiJsonCodec.digest(new GeminiRequest("Hi")), GeminiJsonCodec.digest(new GeminiRequest("Hi")));
+        assertNotEquals(GeminiJsonCodec.digest(new GeminiRequest("Hi")), GeminiJsonCodec.digest(new GeminiRequest("Hi!")));
+    }
+
+    @Test
+    public void readTextJoinsThePartsOfTheFirstCandidate() throws IOException {
+        String json = "{\"usageMetadata\":{\"totalTokenCount\":5},"
+                + "\"candidates\":[{\"finishReason\":\"STOP\",\"content\":{\"role\":\"model\",\"parts\":["
+                + "{\"text\":\"Hello \"},{\"thought\":true},{\"text\":\"there\"}]}},"
+                + "{\"content\":{\"parts\":[{\"text\":\"ignored\"}]}}]}";
+        assertEquals("Hello there", GeminiJsonCodec.readText(json));
+    }
+
+    @Test
+    public void readTextFromASource() throws IOException {
+        Buffer source = new Buffer().writeUtf8("{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"ok\"}]}}]}");
+        assertEquals("ok", GeminiJsonCodec.readText(source));
+    }
+
+    @Test
+    public void readTextWithoutCandidatesIsEmpty() throws IOException {
+        assertEquals("", GeminiJsonCodec.readText("{\"promptFeedback\":{\"blockReason\":\"SAFETY\"}}"));
+    }
+
+    private static String write(GeminiRequest request) throws IOException {
+        Buffer buffer = new Buffer();
+        GeminiJsonCodec.write(request, buffer);
+        return buffer.readUtf8();
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.lawway;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GeminiRequestSchedulerTest {
+    private static final String KEY = "test-key";
+
+    private final FakeClock clock = new FakeClock();
+    private MockWebServer server;
+    private OkHttpClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        client = new OkHttpClient();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void retryAfterSecondsIsNotCappedByBackoff() {
+        GeminiRequestScheduler scheduler = newScheduler(2);
+        assertEquals(60_000, scheduler.retryAfter(response(429, "60")));
+    }
+
+    @Test
+    public void retryAfterDateIsMeasuredFromClock() {
+        GeminiRequestScheduler scheduler = newScheduler(2);
+        SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        String date = format.format(new Date(clock.now + 90_000));
+        assertEquals(90_000, scheduler.retryAfter(response(503, date)));
+    }
+
+    @Test
+    public void tooManyRequestsWaitsForRetryAfter() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "1"));
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        List<String> bodies = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        newScheduler(2).enqueue(KEY, request(), reader(bodies, done));
+
+        assertNotNull(server.takeRequest(2, TimeUnit.SECONDS));
+        assertNull(server.takeRequest(800, TimeUnit.MILLISECONDS));
+        assertNotNull(server.takeRequest(2, TimeUnit.SECONDS));
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertEquals("ok", bodies.get(0));
+    }
+
+    @Test
+    public void streamingResponsesHoldTheirSlotUntilTheBodyIsRead() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            server.enqueue(new MockResponse().setBody("chunk " + i).setBodyDelay(500, TimeUnit.MILLISECONDS));
+        }
+
+        List<String> bodies = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(4);
+        GeminiRequestScheduler scheduler = newScheduler(2);
+        for (int i = 0; i < 4; i++) {
+            scheduler.enqueue(KEY, request(), reader(bodies, done));
+        }
+
+        assertNotNull(server.takeRequest(2, TimeUnit.SECONDS));
+        assertNotNull(server.takeRequest(2, TimeUnit.SECONDS));
+        // Headers are back but both bodies are still streaming, so no third call may start.
+        assertNull(server.takeRequest(300, TimeUnit.MILLISECONDS));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(4, server.getRequestCount());
+        assertEquals(4, bodies.size());
+    }
+
+    @Test
+    public void failedBodyReadReportsFailureAndFreesTheSlot() throws Exception {
+        server.enqueue(new MockResponse().setBody("truncated"));
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        List<IOException> failures = new CopyOnWriteArrayList<>();
+        CountDownLatch failed = new CountDownLatch(1);
+        GeminiRequestScheduler scheduler = newScheduler(1);
+        scheduler.enqueue(KEY, request(), new GeminiRequestScheduler.Attempt() {
+            @Override
+            public void onResponse(Response response) throws IOException {
+                throw new IOException("unexpected end of stream");
+            }
+
+            @Override
+            public void onFailure(IOException e) {
+                failures.add(e);
+                failed.countDown();
+            }
+        });
+        assertTrue(failed.await(2, TimeUnit.SECONDS));
+        assertEquals("unexpected end of stream", failures.get(0).getMessage());
+
+        List<String> bodies = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        scheduler.enqueue(KEY, request(), reader(bodies, done));
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertEquals("ok", bodies.get(0));
+    }
+
+    private GeminiRequestScheduler newScheduler(int maxConcurrent) {
+        return new GeminiRequestScheduler(client, maxConcurrent, 100, 60_000, 2, clock);
+    }
+
+    private Request request() {
+        return new Request.Builder().url(server.url("/generate")).build();
+    }
+
+    private Response response(int code, String retryAfter) {
+        return new Response.Builder()
+                .request(request())
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message("Retry")
+                .header("Retry-After", retryAfter)
+                .build();
+    }
+
+    private static GeminiRequestScheduler.Attempt reader(List<String> bodies, CountDownLatch done) {
+        return new GeminiRequestScheduler.Attempt() {
+            @Override
+            public void onResponse(Response response) throws IOException {
+                bodies.add(response.body().string());
+                done.countDown();
+            }
+
+            @Override
+            public void onFailure(IOException e) {
+                done.countDown();
+            }
+        };
+    }
+
+    private static class FakeClock implements GeminiRequestScheduler.Clock {
+        long elapsed;
+        long now = 1_700_000_000_000L;
+
+        @Override
+        public long elapsedRealtime() {
+            return elapsed;
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.lawway;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LegalFaqIndexTest {
+    private static final String CORPUS = "# comment line\n"
+            + "What is an affidavit?\tA sworn written statement of facts signed before a notary.\n"
+            + "\n"
+            + "What is a statute of limitations?\tThe deadline for starting a legal action.\n"
+            + "How do I file for divorce?\tFile a petition with the family court in your county.\n"
+            + "What is power of attorney?\tA document letting someone act for you in financial matters.\n"
+            + "malformed line without a tab\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void packSkipsCommentsBlankAndMalformedLines() throws IOException {
+        LegalFaqIndex index = packAndOpen(CORPUS);
+        assertEquals(4, index.getPassageCount());
+        assertEquals(LegalFaqIndex.stampOf(bytes(CORPUS)), index.getCorpusStamp());
+    }
+
+    @Test
+    public void searchRanksTheMatchingQuestionFirst() throws IOException {
+        LegalFaqIndex index = packAndOpen(CORPUS);
+        List<LegalFaqIndex.Passage> passages = index.search("How do I file a divorce petition?", 3);
+
+        assertEquals("How do I file for divorce?", passages.get(0).getQuestion());
+        assertEquals("File a petition with the family court in your county.", passages.get(0).getAnswer());
+        for (int i = 1; i < passages.size(); i++) {
+            assertTrue(passages.get(i - 1).getScore() >= passages.get(i).getScore());
+        }
+    }
+
+    @Test
+    public void coverageCountsTermsMissingFromTheCorpus() throws IOException {
+        LegalFaqIndex index = packAndOpen(CORPUS);
+
+        assertEquals(1f, index.search("affidavit", 1).get(0).getCoverage(), 0.001f);
+        float partial = index.search("affidavit spaceship", 1).get(0).getCoverage();
+        assertTrue(partial > 0 && partial < 1);
+    }
+
+    @Test
+    public void searchWithoutUsableTermsReturnsNothing() throws IOException {
+        LegalFaqIndex index = packAndOpen(CORPUS);
+        assertTrue(index.search("what is the", 3).isEmpty());
+        assertTrue(index.search("spaceship", 3).isEmpty());
+        assertTrue(index.search("affidavit", 0).isEmpty());
+    }
+
+    @Test
+    public void tokenizeDropsStopWordsAndStemsPlurals() {
+        assertEquals(Arrays.asList("attorney", "fee", "party"), LegalFaqIndex.tokenize("What are the attorney's fees, parties?"));
+    }
+
+    @Test
+    public void stampChangesWithTheCorpus() {
+        assertNotEquals(LegalFaqIndex.stampOf(bytes(CORPUS)), LegalFaqIndex.stampOf(bytes(CORPUS + "x\ty\n")));
+    }
+
+    @Test
+    public void openRejectsForeignFiles() throws IOException {
+        File file = folder.newFile("garbage.idx");
+        try (FileOutputStream output = new FileOutputStream(file)) {
+            output.write(new byte[64]);
+        }
+        try {
+            LegalFaqIndex.open(file);
+            fail("Expected IOException");
+        } catch (IOException expected) {
+        }
+    }
+
+    @Test
+    public void searchLatencyOnTenThousandPassages() throws IOException {
+        Random random = new Random(42);
+        String[] words = new String[2000];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = "term" + i;
+        }
+        StringBuilder corpus = new StringBuilder();
+        for (int doc = 0; doc < 10_000; doc++) {
+            corpus.append(sentence(random, words, 8)).append('\t').append(sentence(random, words, 40)).append('\n');
+        }
+        LegalFaqIndex index = packAndOpen(corpus.toString());
+
+        long[] micros = new long[1000];
+        for (int i = 0; i < micros.length; i++) {
+            String query = sentence(random, words, 6);
+            long startedAt = System.nanoTime();
+            index.search(query, LegalFaqRetriever.DEFAULT_PASSAGES);
+            micros[i] = (System.nanoTime() - startedAt) / 1000;
+        }
+        Arrays.sort(micros);
+        long p50 = micros[micros.length / 2];
+        long p95 = micros[micros.length * 95 / 100];
+        // Loose bounds so the test only catches a regression to scanning the corpus.
+        assertTrue("p50 " + p50 + "us", p50 < 50_000);
+        assertTrue("p95 " + p95 + "us", p95 < 200_000);
+    }
+
+    private LegalFaqIndex packAndOpen(String corpus) throws IOException {
+        File file = new File(folder.getRoot(), "legal_faq.idx");
+        LegalFaqIndex.pack(bytes(corpus), file);
+        return LegalFaqIndex.open(file);
+    }
+
+    private static String sentence(Random random, String[] words, int length) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                builder.append(' ');
+            }
+            builder.append(words[random.nextInt(words.length)]);
+        }
+        return builder.toString();
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
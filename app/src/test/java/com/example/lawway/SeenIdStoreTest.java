@@ -0,0 +1,56 @@
+package com.example.lawway;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SeenIdStoreTest {
+
+    @Test
+    public void filterContainsEverythingAdded() {
+        long[] filter = new long[SeenIdStore.FILTER_WORDS];
+        for (int i = 0; i < SeenIdStore.ROTATE_AFTER; i++) {
+            SeenIdStore.setBits(filter, SeenIdStore.hash("new_request_" + i));
+        }
+        for (int i = 0; i < SeenIdStore.ROTATE_AFTER; i++) {
+            assertTrue(SeenIdStore.mightContain(filter, SeenIdStore.hash("new_request_" + i)));
+        }
+    }
+
+    @Test
+    public void emptyFilterContainsNothing() {
+        long[] filter = new long[SeenIdStore.FILTER_WORDS];
+        assertFalse(SeenIdStore.mightContain(filter, SeenIdStore.hash("accepted_abc")));
+    }
+
+    @Test
+    public void falsePositiveRateAtCapacityIsLow() {
+        long[] filter = new long[SeenIdStore.FILTER_WORDS];
+        for (int i = 0; i < SeenIdStore.ROTATE_AFTER; i++) {
+            SeenIdStore.setBits(filter, SeenIdStore.hash("new_request_" + i));
+        }
+        int probes = 200_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (SeenIdStore.mightContain(filter, SeenIdStore.hash("accepted_" + i))) {
+                falsePositives++;
+            }
+        }
+        // The design target is about 1 in 17,000; allow generous slack.
+        assertTrue("false positives: " + falsePositives, falsePositives < probes / 2_000);
+    }
+
+    @Test
+    public void hashSpreadsSimilarShortKeys() {
+        Set<Long> high = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            high.add(SeenIdStore.hash("r" + i) >>> 32);
+        }
+        assertEquals(1000, high.size());
+    }
+}
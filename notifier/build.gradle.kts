@@ -0,0 +1,18 @@
+plugins {
+    application
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+application {
+    mainClass.set("com.example.lawway.notifier.NotifierMain")
+}
+
+dependencies {
+    implementation("com.google.firebase:firebase-admin:9.4.3")
+    testImplementation(libs.junit)
+    testImplementation("org.mockito:mockito-core:4.11.0")
+}
@@ -0,0 +1,62 @@
+package com.example.lawway.notifier;
+
+import java.util.Arrays;
+
+public class DispatchStats {
+    private static final int LATENCY_SAMPLES = 10000;
+
+    private final long startedAt = System.currentTimeMillis();
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private int latencyCount;
+    private long sent;
+    private long retried;
+    private long failed;
+    private long noToken;
+    private long batches;
+
+    public synchronized void recordBatch() {
+        batches++;
+    }
+
+    /** Records a delivery acknowledged by FCM whose write time is unknown. */
+    public synchronized void recordSent() {
+        sent++;
+    }
+
+    /** Records a delivery acknowledged by FCM, {@code latencyMs} after the notification was written. */
+    public synchronized void recordSent(long latencyMs) {
+        sent++;
+        latencies[latencyCount % LATENCY_SAMPLES] = latencyMs;
+        latencyCount++;
+    }
+
+    public synchronized void recordRetry() {
+        retried++;
+    }
+
+    public synchronized void recordFailed() {
+        failed++;
+    }
+
+    public synchronized void recordNoToken() {
+        noToken++;
+    }
+
+    public synchronized String summary() {
+        double seconds = Math.max(1, System.currentTimeMillis() - startedAt) / 1000.0;
+        int samples = Math.min(latencyCount, LATENCY_SAMPLES);
+        long[] sorted = Arrays.copyOf(latencies, samples);
+        Arrays.sort(sorted);
+        return String.format(
+                "sent=%d retried=%d failed=%d noToken=%d batches=%d throughput=%.1f/s latency p50=%dms p95=%dms",
+                sent, retried, failed, noToken, batches, sent / seconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.95));
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * fraction))];
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.lawway.notifier;
+
+import com.google.firebase.messaging.AndroidConfig;
+import com.google.firebase.messaging.BatchResponse;
+import com.google.firebase.messaging.FirebaseMessaging;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.MessagingErrorCode;
+import com.google.firebase.messaging.Message;
+import com.google.firebase.messaging.SendResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class FcmMessageSender implements MessageSender {
+    private final FirebaseMessaging messaging;
+
+    public FcmMessageSender(FirebaseMessaging messaging) {
+        this.messaging = messaging;
+    }
+
+    /**
+     * Messages are data-only so the app's messaging service always receives them and
+     * can prefetch the request before the user opens it.
+     */
+    @Override
+    public List<Outcome> sendBatch(List<PushMessage> messages) throws FirebaseMessagingException {
+        AndroidConfig android = AndroidConfig.builder().setPriority(AndroidConfig.Priority.HIGH).build();
+        List<Message> batch = new ArrayList<>(messages.size());
+        for (PushMessage message : messages) {
+            batch.add(Message.builder()
+                    .setToken(message.getToken())
+                    .putAllData(message.getData())
+                    .putData("title", message.getTitle())
+                    .putData("body", message.getBody())
+                    .setAndroidConfig(android)
+                    .build());
+        }
+        BatchResponse response = messaging.sendEach(batch);
+
+        List<Outcome> outcomes = new ArrayList<>(messages.size());
+        for (SendResponse send : response.getResponses()) {
+            FirebaseMessagingException error = send.getException();
+            outcomes.add(send.isSuccessful() ? Outcome.SENT : classify(error != null ? error.getMessagingErrorCode() : null));
+        }
+        return outcomes;
+    }
+
+    static Outcome classify(MessagingErrorCode code) {
+        if (code == null) {
+            return Outcome.RETRY;
+        }
+        switch (code) {
+            case UNAVAILABLE:
+            case INTERNAL:
+            case QUOTA_EXCEEDED:
+                return Outcome.RETRY;
+            // INVALID_ARGUMENT also covers bad messages, e.g. an oversized payload, so it must not drop the token.
+            case UNREGISTERED:
+            case SENDER_ID_MISMATCH:
+                return Outcome.INVALID_TOKEN;
+            default:
+                return Outcome.FAILED;
+        }
+    }
+}
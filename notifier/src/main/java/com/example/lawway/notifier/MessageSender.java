@@ -0,0 +1,20 @@
+package com.example.lawway.notifier;
+
+import java.util.List;
+
+public interface MessageSender {
+    int MAX_MESSAGES_PER_BATCH = 500;
+
+    enum Outcome {
+        SENT,
+        RETRY,
+        INVALID_TOKEN,
+        FAILED
+    }
+
+    /**
+     * Sends up to {@link #MAX_MESSAGES_PER_BATCH} messages in one request and returns an
+     * outcome per message, in the same order as {@code messages}.
+     */
+    List<Outcome> sendBatch(List<PushMessage> messages) throws Exception;
+}
@@ -0,0 +1,368 @@
+package com.example.lawway.notifier;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/** Pushes pending notifications to FCM; the retry query needs the index (dispatchStatus, nextAttemptAt). */
+public class NotificationDispatcher {
+    private static final Logger LOG = Logger.getLogger(NotificationDispatcher.class.getName());
+
+    private static final String NOTIFICATIONS = "notifications";
+    private static final String USERS = "users";
+    private static final String REQUESTS = "requests";
+
+    static final String STATUS_SENT = "sent";
+    static final String STATUS_NO_TOKEN = "no_token";
+    static final String STATUS_INVALID_TOKEN = "invalid_token";
+    static final String STATUS_FAILED = "failed";
+    static final String STATUS_RETRYING = "retrying";
+
+    private static final int FETCH_BATCH = 500;
+    private static final int MAX_BATCH_WRITES = 500;
+    private static final int SEND_THREADS = 4;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long BASE_RETRY_DELAY_MS = 1000;
+    private static final long MAX_RETRY_DELAY_MS = 60 * 1000;
+    private static final long POLL_INTERVAL_MS = 2000;
+
+    private final Firestore db;
+    private final MessageSender sender;
+    private final DispatchStats stats = new DispatchStats();
+    private final ExecutorService sendPool = Executors.newFixedThreadPool(SEND_THREADS);
+    private volatile boolean running;
+
+    public NotificationDispatcher(Firestore db, MessageSender sender) {
+        this.db = db;
+        this.sender = sender;
+    }
+
+    public DispatchStats getStats() {
+        return stats;
+    }
+
+    public void run() {
+        running = true;
+        while (running) {
+            try {
+                int handled = runOnce();
+                if (handled > 0) {
+                    LOG.info(stats.summary());
+                } else {
+                    Thread.sleep(POLL_INTERVAL_MS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (Exception e) {
+                LOG.log(Level.WARNING, "Dispatch cycle failed", e);
+                try {
+                    Thread.sleep(POLL_INTERVAL_MS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    running = false;
+                }
+            }
+        }
+        sendPool.shutdown();
+    }
+
+    public void stop() {
+        running = false;
+    }
+
+    /** Runs one fetch-send-mark cycle and returns the number of notifications handled. */
+    public int runOnce() throws Exception {
+        List<QueryDocumentSnapshot> page = new ArrayList<>(fetchPending());
+        page.addAll(fetchDueRetries());
+        if (page.isEmpty()) {
+            return 0;
+        }
+
+        List<Delivery> deliveries = new ArrayList<>();
+        Map<String, Outcome> results = new LinkedHashMap<>();
+        Map<String, String> tokens = lookupTokens(page);
+        Map<String, DocumentSnapshot> requests = lookupRequests(page);
+        for (QueryDocumentSnapshot document : page) {
+            Long stored = document.getLong("dispatchAttempts");
+            int attempts = stored != null ? stored.intValue() : 0;
+            String token = tokens.get(document.getString("userId"));
+            if (token == null || token.isEmpty()) {
+                stats.recordNoToken();
+                results.put(document.getId(), new Outcome(STATUS_NO_TOKEN, attempts, null, null));
+                continue;
+            }
+            try {
+                deliveries.add(Delivery.from(document, requests.get(document.getString("requestId")), token, attempts));
+            } catch (RuntimeException e) {
+                // Mark it so one malformed document cannot stall every later cycle.
+                LOG.log(Level.WARNING, "Skipping malformed notification " + document.getId(), e);
+                stats.recordFailed();
+                results.put(document.getId(), new Outcome(STATUS_FAILED, attempts, null, null));
+            }
+        }
+
+        send(deliveries, results);
+        markDispatched(results);
+        return page.size();
+    }
+
+    private List<QueryDocumentSnapshot> fetchPending() throws Exception {
+        // Matches an explicit null only, so documents written before the app set the field are never pushed.
+        return db.collection(NOTIFICATIONS)
+                .whereEqualTo("dispatchStatus", null)
+                .limit(FETCH_BATCH)
+                .get().get().getDocuments();
+    }
+
+    private List<QueryDocumentSnapshot> fetchDueRetries() throws Exception {
+        return db.collection(NOTIFICATIONS)
+                .whereEqualTo("dispatchStatus", STATUS_RETRYING)
+                .whereLessThanOrEqualTo("nextAttemptAt", Timestamp.now())
+                .orderBy("nextAttemptAt")
+                .limit(FETCH_BATCH)
+                .get().get().getDocuments();
+    }
+
+    private Map<String, String> lookupTokens(List<QueryDocumentSnapshot> notifications) throws Exception {
+        Set<String> userIds = new LinkedHashSet<>();
+        for (QueryDocumentSnapshot notification : notifications) {
+            String userId = notification.getString("userId");
+            if (userId != null && !userId.isEmpty()) {
+                userIds.add(userId);
+            }
+        }
+
+        List<DocumentReference> references = new ArrayList<>(userIds.size());
+        for (String userId : userIds) {
+            references.add(db.collection(USERS).document(userId));
+        }
+
+        Map<String, String> tokens = new HashMap<>();
+        if (references.isEmpty()) {
+            return tokens;
+        }
+        for (DocumentSnapshot user : db.getAll(references.toArray(new DocumentReference[0])).get()) {
+            if (user.exists()) {
+                tokens.put(user.getId(), user.getString("fcmToken"));
+            }
+        }
+        return tokens;
+    }
+
+    private Map<String, DocumentSnapshot> lookupRequests(List<QueryDocumentSnapshot> notifications) throws Exception {
+        Set<String> requestIds = new LinkedHashSet<>();
+        for (QueryDocumentSnapshot notification : notifications) {
+            String requestId = notification.getString("requestId");
+            if (requestId != null && !requestId.isEmpty()) {
+                requestIds.add(requestId);
+            }
+        }
+
+        Map<String, DocumentSnapshot> requests = new HashMap<>();
+        if (requestIds.isEmpty()) {
+            return requests;
+        }
+        List<DocumentReference> references = new ArrayList<>(requestIds.size());
+        for (String requestId : requestIds) {
+            references.add(db.collection(REQUESTS).document(requestId));
+        }
+        for (DocumentSnapshot request : db.getAll(references.toArray(new DocumentReference[0])).get()) {
+            if (request.exists()) {
+                requests.put(request.getId(), request);
+            }
+        }
+        return requests;
+    }
+
+    private void send(List<Delivery> deliveries, Map<String, Outcome> results) throws Exception {
+        List<List<Delivery>> chunks = new ArrayList<>();
+        List<Future<List<MessageSender.Outcome>>> futures = new ArrayList<>();
+        for (int start = 0; start < deliveries.size(); start += MessageSender.MAX_MESSAGES_PER_BATCH) {
+            List<Delivery> chunk = deliveries.subList(start, Math.min(deliveries.size(), start + MessageSender.MAX_MESSAGES_PER_BATCH));
+            List<PushMessage> messages = new ArrayList<>(chunk.size());
+            for (Delivery delivery : chunk) {
+                messages.add(delivery.message);
+            }
+            chunks.add(chunk);
+            futures.add(sendPool.submit(() -> sender.sendBatch(messages)));
+        }
+
+        for (int i = 0; i < chunks.size(); i++) {
+            List<Delivery> chunk = chunks.get(i);
+            List<MessageSender.Outcome> outcomes;
+            try {
+                outcomes = futures.get(i).get();
+                stats.recordBatch();
+            } catch (Exception e) {
+                LOG.log(Level.WARNING, "Batch of " + chunk.size() + " messages failed", e);
+                outcomes = null;
+            }
+            for (int j = 0; j < chunk.size(); j++) {
+                MessageSender.Outcome outcome = outcomes != null && j < outcomes.size() ? outcomes.get(j) : MessageSender.Outcome.RETRY;
+                handleOutcome(chunk.get(j), outcome, results);
+            }
+        }
+    }
+
+    private void handleOutcome(Delivery delivery, MessageSender.Outcome outcome, Map<String, Outcome> results) {
+        int attempts = delivery.attempt + 1;
+        switch (outcome) {
+            case SENT:
+                if (delivery.createdAtMillis != Delivery.UNKNOWN_CREATED_AT) {
+                    stats.recordSent(System.currentTimeMillis() - delivery.createdAtMillis);
+                } else {
+                    stats.recordSent();
+                }
+                results.put(delivery.notificationId, new Outcome(STATUS_SENT, attempts, null, null));
+                break;
+            case RETRY:
+                if (attempts < MAX_ATTEMPTS) {
+                    stats.recordRetry();
+                    results.put(delivery.notificationId, new Outcome(STATUS_RETRYING, attempts, null, nextAttemptAt(attempts)));
+                } else {
+                    stats.recordFailed();
+                    results.put(delivery.notificationId, new Outcome(STATUS_FAILED, attempts, null, null));
+                }
+                break;
+            case INVALID_TOKEN:
+                stats.recordFailed();
+                results.put(delivery.notificationId, new Outcome(STATUS_INVALID_TOKEN, attempts, delivery.userId, null));
+                break;
+            default:
+                stats.recordFailed();
+                results.put(delivery.notificationId, new Outcome(STATUS_FAILED, attempts, null, null));
+                break;
+        }
+    }
+
+    private void markDispatched(Map<String, Outcome> results) throws Exception {
+        List<Future<?>> commits = new ArrayList<>();
+        WriteBatch batch = db.batch();
+        int writes = 0;
+        for (Map.Entry<String, Outcome> entry : results.entrySet()) {
+            Outcome outcome = entry.getValue();
+            Map<String, Object> update = new HashMap<>();
+            update.put("dispatchStatus", outcome.status);
+            update.put("dispatchAttempts", outcome.attempts);
+            if (outcome.nextAttemptAt != null) {
+                update.put("nextAttemptAt", outcome.nextAttemptAt);
+            } else {
+                update.put("nextAttemptAt", FieldValue.delete());
+                update.put("dispatchedAt", FieldValue.serverTimestamp());
+            }
+            batch.update(db.collection(NOTIFICATIONS).document(entry.getKey()), update);
+            writes++;
+            if (outcome.staleTokenUserId != null) {
+                // Stop sending to a token FCM has unregistered; the app writes a new one on next launch.
+                batch.update(db.collection(USERS).document(outcome.staleTokenUserId), "fcmToken", FieldValue.delete());
+                writes++;
+            }
+            if (writes >= MAX_BATCH_WRITES - 1) {
+                commits.add(batch.commit());
+                batch = db.batch();
+                writes = 0;
+            }
+        }
+        if (writes > 0) {
+            commits.add(batch.commit());
+        }
+        for (Future<?> commit : commits) {
+            commit.get();
+        }
+    }
+
+    /** Backoff with jitter before attempt {@code attempts + 1}. */
+    private static Timestamp nextAttemptAt(int attempts) {
+        long backoff = Math.min(MAX_RETRY_DELAY_MS, BASE_RETRY_DELAY_MS << (attempts - 1));
+        long jitter = ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+        return Timestamp.ofTimeMicroseconds((System.currentTimeMillis() + backoff / 2 + jitter) * 1000);
+    }
+
+    private static class Outcome {
+        final String status;
+        final int attempts;
+        final String staleTokenUserId;
+        final Timestamp nextAttemptAt;
+
+        Outcome(String status, int attempts, String staleTokenUserId, Timestamp nextAttemptAt) {
+            this.status = status;
+            this.attempts = attempts;
+            this.staleTokenUserId = staleTokenUserId;
+            this.nextAttemptAt = nextAttemptAt;
+        }
+    }
+
+    static class Delivery {
+        static final long UNKNOWN_CREATED_AT = -1;
+
+        final String notificationId;
+        final String userId;
+        final PushMessage message;
+        final long createdAtMillis;
+        final int attempt;
+
+        Delivery(String notificationId, String userId, PushMessage message, long createdAtMillis, int attempt) {
+            this.notificationId = notificationId;
+            this.userId = userId;
+            this.message = message;
+            this.createdAtMillis = createdAtMillis;
+            this.attempt = attempt;
+        }
+
+        static Delivery from(QueryDocumentSnapshot document, DocumentSnapshot request, String token, int attempt) {
+            Map<String, String> data = new LinkedHashMap<>();
+            data.put("notificationId", document.getId());
+            putIfPresent(data, "requestId", document.getString("requestId"));
+            putIfPresent(data, "userType", document.getString("userType"));
+            putIfPresent(data, "type", document.getString("type"));
+            if (request != null) {
+                // A compact summary so the app can start its joins without reading the request first.
+                putIfPresent(data, "clientId", request.getString("clientId"));
+                putIfPresent(data, "lawyerId", request.getString("lawyerId"));
+                putIfPresent(data, "caseId", request.getString("caseId"));
+                putIfPresent(data, "status", request.getString("status"));
+            }
+            PushMessage message = new PushMessage(
+                    token,
+                    valueOrEmpty(document.getString("title")),
+                    valueOrEmpty(document.getString("message")),
+                    data);
+            Timestamp createdAt = document.getTimestamp("createdAt");
+            return new Delivery(
+                    document.getId(),
+                    document.getString("userId"),
+                    message,
+                    createdAt != null ? createdAt.toDate().getTime() : UNKNOWN_CREATED_AT,
+                    attempt);
+        }
+
+        private static void putIfPresent(Map<String, String> data, String key, String value) {
+            if (value != null) {
+                data.put(key, value);
+            }
+        }
+
+        private static String valueOrEmpty(String value) {
+            return value != null ? value : "";
+        }
+    }
+}
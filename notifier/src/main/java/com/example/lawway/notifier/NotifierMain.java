@@ -0,0 +1,118 @@
+package com.example.lawway.notifier;
+
+import com.google.auth.oauth2.AccessToken;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.WriteBatch;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.FirebaseOptions;
+import com.google.firebase.cloud.FirestoreClient;
+import com.google.firebase.messaging.FirebaseMessaging;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+/**
+ * Entry point for the notification worker.
+ *
+ * <pre>
+ *   notifier run            dispatch new notifications until stopped
+ *   notifier seed &lt;count&gt;   write test users and notifications (emulator only)
+ * </pre>
+ *
+ * Set FIRESTORE_EMULATOR_HOST to run against the Firestore emulator, and
+ * FCM_STUB_ROUND_TRIP_MS to replace FCM with {@link StubMessageSender}. Outside the
+ * emulator the usual GOOGLE_APPLICATION_CREDENTIALS service account is used.
+ */
+public class NotifierMain {
+    private static final Logger LOG = Logger.getLogger(NotifierMain.class.getName());
+    private static final String DEFAULT_PROJECT_ID = "lawway";
+    private static final int SEED_BATCH_WRITES = 500;
+
+    public static void main(String[] args) throws Exception {
+        String command = args.length > 0 ? args[0] : "run";
+        boolean emulator = System.getenv("FIRESTORE_EMULATOR_HOST") != null;
+        FirebaseApp app = FirebaseApp.initializeApp(buildOptions(emulator));
+        Firestore db = FirestoreClient.getFirestore(app);
+
+        if ("seed".equals(command)) {
+            if (!emulator) {
+                throw new IllegalStateException("seed only runs against the Firestore emulator");
+            }
+            seed(db, args.length > 1 ? Integer.parseInt(args[1]) : 1000);
+            return;
+        }
+
+        MessageSender sender;
+        String stubRoundTrip = System.getenv("FCM_STUB_ROUND_TRIP_MS");
+        if (stubRoundTrip != null) {
+            String retryRate = System.getenv("FCM_STUB_RETRY_RATE");
+            sender = new StubMessageSender(Long.parseLong(stubRoundTrip), retryRate != null ? Double.parseDouble(retryRate) : 0);
+        } else {
+            sender = new FcmMessageSender(FirebaseMessaging.getInstance(app));
+        }
+
+        NotificationDispatcher dispatcher = new NotificationDispatcher(db, sender);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            dispatcher.stop();
+            LOG.info(dispatcher.getStats().summary());
+        }));
+        dispatcher.run();
+    }
+
+    private static FirebaseOptions buildOptions(boolean emulator) throws Exception {
+        String projectId = System.getenv("NOTIFIER_PROJECT_ID");
+        FirebaseOptions.Builder options = FirebaseOptions.builder()
+                .setProjectId(projectId != null ? projectId : DEFAULT_PROJECT_ID);
+        if (emulator) {
+            // The emulator ignores auth, but the SDK still wants credentials to exist.
+            options.setCredentials(GoogleCredentials.create(new AccessToken("owner", null)));
+        } else {
+            options.setCredentials(GoogleCredentials.getApplicationDefault());
+        }
+        return options.build();
+    }
+
+    private static void seed(Firestore db, int count) throws Exception {
+        List<Future<?>> commits = new ArrayList<>();
+        WriteBatch batch = db.batch();
+        int writes = 0;
+        for (int i = 0; i < count; i++) {
+            String userId = "seed-user-" + i;
+            Map<String, Object> user = new HashMap<>();
+            user.put("fcmToken", "seed-token-" + i);
+            batch.set(db.collection("users").document(userId), user);
+
+            Map<String, Object> notification = new HashMap<>();
+            notification.put("userId", userId);
+            notification.put("title", "New Request");
+            notification.put("message", "Seeded notification " + i);
+            notification.put("requestId", "seed-request-" + i);
+            notification.put("userType", "Lawyer");
+            notification.put("type", "request");
+            notification.put("read", false);
+            notification.put("dispatchStatus", null);
+            notification.put("createdAt", Timestamp.now());
+            batch.set(db.collection("notifications").document(), notification);
+
+            writes += 2;
+            if (writes >= SEED_BATCH_WRITES) {
+                commits.add(batch.commit());
+                batch = db.batch();
+                writes = 0;
+            }
+        }
+        if (writes > 0) {
+            commits.add(batch.commit());
+        }
+        for (Future<?> commit : commits) {
+            commit.get();
+        }
+        LOG.info("Seeded " + count + " users and notifications");
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.lawway.notifier;
+
+import java.util.Map;
+
+public class PushMessage {
+    private final String token;
+    private final String title;
+    private final String body;
+    private final Map<String, String> data;
+
+    public PushMessage(String token, String title, String body, Map<String, String> data) {
+        this.token = token;
+        this.title = title;
+        this.body = body;
+        this.data = data;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public Map<String, String> getData() {
+        return data;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.lawway.notifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/** Local stand-in for FCM that sleeps a fixed round trip per batch and fails a share of messages. */
+public class StubMessageSender implements MessageSender {
+    private final long roundTripMs;
+    private final double retryRate;
+    private final Random random = new Random();
+
+    public StubMessageSender(long roundTripMs, double retryRate) {
+        this.roundTripMs = roundTripMs;
+        this.retryRate = retryRate;
+    }
+
+    @Override
+    public List<Outcome> sendBatch(List<PushMessage> messages) throws InterruptedException {
+        Thread.sleep(roundTripMs);
+        List<Outcome> outcomes = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            outcomes.add(random.nextDouble() < retryRate ? Outcome.RETRY : Outcome.SENT);
+        }
+        return outcomes;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.lawway.notifier;
+
+import com.google.firebase.messaging.MessagingErrorCode;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class FcmMessageSenderTest {
+
+    @Test
+    public void onlyDeadTokenErrorsInvalidateTheToken() {
+        assertEquals(MessageSender.Outcome.INVALID_TOKEN, FcmMessageSender.classify(MessagingErrorCode.UNREGISTERED));
+        assertEquals(MessageSender.Outcome.INVALID_TOKEN, FcmMessageSender.classify(MessagingErrorCode.SENDER_ID_MISMATCH));
+        assertEquals(MessageSender.Outcome.FAILED, FcmMessageSender.classify(MessagingErrorCode.INVALID_ARGUMENT));
+    }
+
+    @Test
+    public void transientErrorsAreRetried() {
+        assertEquals(MessageSender.Outcome.RETRY, FcmMessageSender.classify(MessagingErrorCode.UNAVAILABLE));
+        assertEquals(MessageSender.Outcome.RETRY, FcmMessageSender.classify(MessagingErrorCode.INTERNAL));
+        assertEquals(MessageSender.Outcome.RETRY, FcmMessageSender.classify(MessagingErrorCode.QUOTA_EXCEEDED));
+        assertEquals(MessageSender.Outcome.RETRY, FcmMessageSender.classify(null));
+    }
+}
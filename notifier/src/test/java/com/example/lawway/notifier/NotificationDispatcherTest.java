@@ -0,0 +1,53 @@
+package com.example.lawway.notifier;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class NotificationDispatcherTest {
+
+    @Test
+    public void deliveryWithoutCreatedAtHasUnknownLatency() {
+        QueryDocumentSnapshot document = notification("n1");
+
+        NotificationDispatcher.Delivery delivery = NotificationDispatcher.Delivery.from(document, null, "token", 2);
+
+        assertEquals(NotificationDispatcher.Delivery.UNKNOWN_CREATED_AT, delivery.createdAtMillis);
+        assertEquals("n1", delivery.notificationId);
+        assertEquals(2, delivery.attempt);
+        assertEquals("token", delivery.message.getToken());
+    }
+
+    @Test
+    public void deliveryKeepsCreatedAt() {
+        QueryDocumentSnapshot document = notification("n1");
+        when(document.getTimestamp("createdAt")).thenReturn(Timestamp.ofTimeMicroseconds(5_000_000));
+
+        assertEquals(5_000, NotificationDispatcher.Delivery.from(document, null, "token", 0).createdAtMillis);
+    }
+
+    @Test
+    public void sentWithoutLatencyIsCountedButNotSampled() {
+        DispatchStats stats = new DispatchStats();
+        stats.recordSent();
+
+        String summary = stats.summary();
+        assertTrue(summary, summary.contains("sent=1 "));
+        assertTrue(summary, summary.contains("p50=0ms"));
+    }
+
+    private static QueryDocumentSnapshot notification(String id) {
+        QueryDocumentSnapshot document = mock(QueryDocumentSnapshot.class);
+        when(document.getId()).thenReturn(id);
+        when(document.getString("userId")).thenReturn("user-1");
+        when(document.getString("title")).thenReturn("New Request");
+        when(document.getString("message")).thenReturn("You have a new request");
+        return document;
+    }
+}
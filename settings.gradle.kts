@@ -21,4 +21,5 @@ dependencyResolutionManagement {
 
 rootProject.name = "lawway"
 include(":app")
+include(":notifier")
  
\ No newline at end of file